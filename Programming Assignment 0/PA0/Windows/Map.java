@@ -13,9 +13,13 @@
 // their being read and parsed.  The map is stored as a collection of 
 // Location objects, with each Location being given the responsibility of
 // maintaining all of the Road objects corresponding to road segments leading
-// out of it.
+// out of it.  A hash table indexing the locations by name is maintained
+// alongside the collection, so that locations can be found quickly while
+// a road file is being read.
 //
-// David Noelle -- Sun Feb 11 18:05:18 PST 2007
+// David Noelle -- Created Sun Feb 11 18:05:18 PST 2007
+//                 Modified Sat Oct 17 09:12:40 PDT 2026
+//                   (Indexed locations by name for fast lookup.)
 //
 
 
@@ -27,10 +31,12 @@ public class Map {
     String locationFilename = "locations.dat";
     String roadFilename = "roads.dat";
     List<Location> locations;
+    HashMap<String, Location> locationIndex;
 
     // Default constructor ...
     public Map() {
 	this.locations = new ArrayList<Location>();
+	this.locationIndex = new HashMap<String, Location>();
     }
 
     // Constructor with filenames specified ...
@@ -75,21 +81,23 @@ public class Map {
 	return (true);
     }
 
-    // findLocation -- Search through the collection of locations on this map
-    // for one with the given textual name.  Return a reference to the
-    // corresponding Location object, or null if no such location is found.
+    // findLocation -- Look up the location on this map with the given
+    // textual name.  Return a reference to the corresponding Location
+    // object, or null if no such location is found.  The name index makes
+    // this a constant time operation, rather than a search through the
+    // entire collection of locations.
     public Location findLocation(String name) {
-	for (Location loc : locations) {
-	    if (loc.name.equals(name))
-		return (loc);
-	}
-	return (null);
+	return (locationIndex.get(name));
     }
 
     // recordLocation -- Add the given Location object to the collection of
-    // locations for this map.
+    // locations for this map, and index it by name.  Location names are
+    // assumed to be unique, but, if a name is repeated, the first location
+    // recorded with that name is the one that will be found.
     public void recordLocation(Location loc) {
 	locations.add(loc);
+	if (!(locationIndex.containsKey(loc.name)))
+	    locationIndex.put(loc.name, loc);
     }
 
     // readLocations -- Attempt to open the location file specified by the
@@ -0,0 +1,26 @@
+//
+// BFSearch
+//
+// This class implements breadth-first search for a path from one location
+// on a map to another, expanding nodes in the order in which they were
+// generated.  It is the SearchKernel with a FIFO frontier, so, with
+// repeated state checking, only the first path found to each location is
+// kept.  The number of node expansions performed by the most recent search
+// is kept in "expansionCount".
+//
+// Created Sun Oct 18 02:16:45 PDT 2026
+//
+
+
+public class BFSearch extends SearchKernel {
+
+    // Constructor with the map, the initial and destination location names,
+    // and the depth limit specified ...
+    public BFSearch(Map graph, String initialLoc, String destinationLoc,
+		    int limit) {
+	super(graph, initialLoc, destinationLoc, limit,
+	      new FifoPolicy(), "bfs");
+    }
+
+}
+
@@ -0,0 +1,163 @@
+//
+// CompactMap
+//
+// This class implements a frozen, compact copy of the road network encoded
+// in a Map object, stored in "compressed sparse row" form.  Each location
+// on the map is identified by a small integer (its "id"), and the roads
+// leading out of all of the locations are packed, in order of the id of
+// their "from" location, into parallel primitive arrays holding the id of
+// the "to" location and the incremental path cost of each road.  The roads
+// leading out of the location with id "i" are those with indices from
+// "firstRoad[i]" up to, but not including, "firstRoad[i+1]".  Within each
+// location, roads appear in the same order as in the location's list of
+// Road objects.  This layout takes a small fraction of the memory used by
+// the Location and Road objects, and it allows the successors of a location
+// to be enumerated by scanning contiguous arrays.  Road names are retained,
+// so that solutions can still be described in full, and each id maps back
+// to the original Location object.  Note that a CompactMap does not change
+// when the Map from which it was made changes; a new one must be made.
+// The "reverse" method makes a CompactMap with every road turned around,
+// so that the roads leading into a location can be enumerated as easily as
+// those leading out of it, as is needed when searching backward from a
+// destination.
+//
+// Created Sat Oct 17 12:14:27 PDT 2026
+// Modified Sat Oct 17 15:03:38 PDT 2026
+//   (Added reversed maps and conversion of paths to Waypoints.)
+//
+
+
+import java.util.*;
+
+
+public class CompactMap {
+    final Location[] locations;   // id -> Location
+    final int[] firstRoad;        // id -> index of first road leaving it
+    final int[] roadTarget;       // road -> id of "to" location
+    final double[] roadCost;      // road -> incremental path cost
+    final String[] roadName;      // road -> textual name
+
+    // Constructor with the Map to be compacted specified ...
+    public CompactMap(Map map) {
+	int locationCount = map.locations.size();
+	int roadCount = 0;
+	for (Location loc : map.locations)
+	    roadCount += loc.roads.size();
+	this.locations = map.locations.toArray(new Location[locationCount]);
+	this.firstRoad = new int[locationCount + 1];
+	this.roadTarget = new int[roadCount];
+	this.roadCost = new double[roadCount];
+	this.roadName = new String[roadCount];
+	int r = 0;
+	for (int i = 0; i < locationCount; i++) {
+	    firstRoad[i] = r;
+	    for (Road road : locations[i].roads) {
+		roadTarget[r] = road.toLocation.id;
+		roadCost[r] = road.cost;
+		roadName[r] = road.name;
+		r++;
+	    }
+	}
+	firstRoad[locationCount] = r;
+    }
+
+    // Constructor with the compressed sparse row arrays specified ...
+    CompactMap(Location[] locations, int[] firstRoad, int[] roadTarget,
+	       double[] roadCost, String[] roadName) {
+	this.locations = locations;
+	this.firstRoad = firstRoad;
+	this.roadTarget = roadTarget;
+	this.roadCost = roadCost;
+	this.roadName = roadName;
+    }
+
+    // locationCount -- Return the number of locations on this map.
+    public int locationCount() {
+	return (locations.length);
+    }
+
+    // roadCount -- Return the number of road segments on this map.
+    public int roadCount() {
+	return (roadTarget.length);
+    }
+
+    // reverse -- Return a new CompactMap over the same locations, but with
+    // the direction of every road reversed.  Roads are kept in order of
+    // their original "from" location within each location of the result.
+    public CompactMap reverse() {
+	int n = locations.length;
+	int m = roadTarget.length;
+	int[] reverseFirst = new int[n + 1];
+	int[] reverseTarget = new int[m];
+	double[] reverseCost = new double[m];
+	String[] reverseName = new String[m];
+	// Count the roads leading into each location ...
+	for (int r = 0; r < m; r++)
+	    reverseFirst[roadTarget[r] + 1]++;
+	for (int i = 0; i < n; i++)
+	    reverseFirst[i + 1] += reverseFirst[i];
+	// Place each road in the list of its "to" location ...
+	int[] next = Arrays.copyOf(reverseFirst, n);
+	for (int i = 0; i < n; i++) {
+	    for (int r = firstRoad[i]; r < firstRoad[i + 1]; r++) {
+		int slot = next[roadTarget[r]]++;
+		reverseTarget[slot] = i;
+		reverseCost[slot] = roadCost[r];
+		reverseName[slot] = roadName[r];
+	    }
+	}
+	return (new CompactMap(locations, reverseFirst, reverseTarget,
+			       reverseCost, reverseName));
+    }
+
+    // findRoad -- Search the roads leading out of the location with the
+    // first given id for one that leads directly to the location with the
+    // second given id.  Return the index of the first such road, or -1 if
+    // no matching road is found.
+    public int findRoad(int from, int to) {
+	for (int r = firstRoad[from]; r < firstRoad[from + 1]; r++) {
+	    if (roadTarget[r] == to)
+		return (r);
+	}
+	return (-1);
+    }
+
+    // cheapestRoad -- Search the roads leading out of the location with the
+    // first given id for the cheapest one that leads directly to the
+    // location with the second given id.  Return its index, or -1 if no
+    // matching road is found.
+    public int cheapestRoad(int from, int to) {
+	int best = -1;
+	for (int r = firstRoad[from]; r < firstRoad[from + 1]; r++) {
+	    if ((roadTarget[r] == to)
+		&& ((best < 0) || (roadCost[r] < roadCost[best])))
+		best = r;
+	}
+	return (best);
+    }
+
+    // toWaypoint -- Return a Waypoint for the last location in the given
+    // path, which is a sequence of location ids of the given length, with
+    // Waypoint objects filled in for all of the earlier locations, linked
+    // through their "previous" references.  The partial path costs are
+    // those of the cheapest road between each pair of consecutive locations.
+    // Return null if the path is empty or if some consecutive pair of
+    // locations is not directly connected.
+    public Waypoint toWaypoint(int[] path, int length) {
+	Waypoint wp = null;
+	for (int i = 0; i < length; i++) {
+	    Waypoint next = new Waypoint(locations[path[i]], wp);
+	    if (wp != null) {
+		int r = cheapestRoad(path[i - 1], path[i]);
+		if (r < 0)
+		    return (null);
+		next.depth = wp.depth + 1;
+		next.partialPathCost = wp.partialPathCost + roadCost[r];
+	    }
+	    wp = next;
+	}
+	return (wp);
+    }
+
+}
+
@@ -0,0 +1,500 @@
+//
+// ContractionHierarchy
+//
+// This class implements a "contraction hierarchy" over a map, which is a
+// precomputed structure that allows shortest paths between arbitrary pairs
+// of locations to be found while expanding only a tiny fraction of the map.
+// The hierarchy is built by removing ("contracting") the locations of the
+// map one at a time, in order of increasing importance.  When a location is
+// contracted, a "shortcut" edge is added between each pair of its remaining
+// neighbors whose shortest connection passed through the contracted
+// location, so that the costs of shortest paths among the remaining
+// locations are unchanged.  Each location's position in this order is its
+// "rank".  A shortest path between any two locations can then be found by
+// a bidirectional search (see the HierarchySearch class) that only follows
+// edges leading to locations of higher rank.
+//
+// Locations are contracted in order of a priority that is recomputed lazily:
+// the number of shortcuts that contracting the location would add, less the
+// number of edges that it would remove, plus the number of its neighbors
+// that have already been contracted.  A local "witness" search, limited in
+// the number of locations it may settle, is used to decide whether each
+// candidate shortcut is needed.  Every edge of the hierarchy is either an
+// original road (recorded with the index of the road in the compact form of
+// the map) or a shortcut (recorded with the two edges that it replaces), so
+// shortcuts can be unpacked back into the sequence of locations along the
+// original roads, and solutions can be reported in the usual way.  The
+// shortcuts are kept in the hierarchy itself, rather than being added to
+// the map as Road objects, so that the map is unchanged for other searches.
+// Once built, a hierarchy is never modified, so it may be shared by many
+// threads, and it may be written to a file and read back later, as long as
+// the map has not changed.  A hierarchy is not updated when the map
+// changes, so the version of the map is recorded when it is built or read,
+// and a HierarchySearch refuses to search a hierarchy made before the most
+// recent change to its map, until the hierarchy is built again.
+//
+// Created Sat Oct 17 16:40:51 PDT 2026
+// Modified Sun Oct 18 04:31:12 PDT 2026
+//   (Recorded the version of the map.)
+// Modified Sun Oct 18 09:04:17 PDT 2026
+//   (Checked hierarchy files before using them.)
+//
+
+
+import java.io.*;
+import java.util.*;
+
+
+public class ContractionHierarchy {
+    static final int MAGIC = 0x43484945;   // "CHIE"
+    static final int VERSION = 1;
+    static final int WITNESS_LIMIT = 500;  // settled per witness search
+    Map map;
+    CompactMap graph;
+    int[] rank;             // location -> position in contraction order
+    int edgeCount = 0;
+    int[] edgeFrom;         // edge -> "from" location
+    int[] edgeTo;           // edge -> "to" location
+    double[] edgeCost;      // edge -> cost
+    int[] edgeFirst;        // edge -> first replaced edge, or -1 for a road
+    int[] edgeSecond;       // edge -> second replaced edge, or road index
+    long mapVersion = -1;   // version of the map the hierarchy describes
+    // Upward edges, in compressed sparse row form ...
+    int[] firstUp;          // location -> first edge to higher rank
+    int[] upEdge;
+    int[] firstDown;        // location -> first edge from higher rank
+    int[] downEdge;
+    // Working storage, used only while the hierarchy is being built ...
+    int[][] outEdges;
+    int[] outCount;
+    int[][] inEdges;
+    int[] inCount;
+    boolean[] contracted;
+    int[] contractedNeighbors;
+    double[] witnessCost;
+    int[] witnessTouched;
+    int witnessTouchedCount = 0;
+    IndexedHeap witnessFrontier;
+
+    // Constructor with the map specified.  The hierarchy is empty until it
+    // is built or read from a file.
+    public ContractionHierarchy(Map map) {
+	this.map = map;
+	this.graph = map.compact();
+    }
+
+    // build -- Contract every location on the map, recording the resulting
+    // hierarchy.
+    public void build() {
+	mapVersion = map.version();
+	graph = map.compact();
+	int n = graph.locationCount();
+	int m = graph.roadCount();
+	edgeCount = 0;
+	edgeFrom = new int[Math.max(2 * m, 16)];
+	edgeTo = new int[edgeFrom.length];
+	edgeCost = new double[edgeFrom.length];
+	edgeFirst = new int[edgeFrom.length];
+	edgeSecond = new int[edgeFrom.length];
+	outEdges = new int[n][];
+	outCount = new int[n];
+	inEdges = new int[n][];
+	inCount = new int[n];
+	for (int i = 0; i < n; i++) {
+	    int degree = graph.firstRoad[i + 1] - graph.firstRoad[i];
+	    outEdges[i] = new int[Math.max(degree, 4)];
+	    inEdges[i] = new int[4];
+	}
+	contracted = new boolean[n];
+	contractedNeighbors = new int[n];
+	witnessCost = new double[n];
+	Arrays.fill(witnessCost, Double.POSITIVE_INFINITY);
+	witnessTouched = new int[n];
+	witnessFrontier = new IndexedHeap(n);
+	// Start with the original roads, skipping loops ...
+	for (int i = 0; i < n; i++) {
+	    for (int r = graph.firstRoad[i]; r < graph.firstRoad[i + 1]; r++) {
+		if (graph.roadTarget[r] != i)
+		    addEdge(i, graph.roadTarget[r], graph.roadCost[r], -1, r);
+	    }
+	}
+	// Contract locations in order of priority ...
+	rank = new int[n];
+	IndexedHeap order = new IndexedHeap(n);
+	for (int v = 0; v < n; v++)
+	    order.insert(v, priority(v));
+	int nextRank = 0;
+	while (!(order.isEmpty())) {
+	    int v = order.removeMin();
+	    double p = priority(v);
+	    if (!(order.isEmpty()) && (p > order.peekKey())) {
+		// Its priority is out of date, so try again later ...
+		order.insert(v, p);
+		continue;
+	    }
+	    contract(v, false);
+	    contracted[v] = true;
+	    rank[v] = nextRank++;
+	    for (int i = 0; i < outCount[v]; i++)
+		contractedNeighbors[edgeTo[outEdges[v][i]]]++;
+	    for (int i = 0; i < inCount[v]; i++)
+		contractedNeighbors[edgeFrom[inEdges[v][i]]]++;
+	}
+	// Release the working storage ...
+	outEdges = null;
+	outCount = null;
+	inEdges = null;
+	inCount = null;
+	contracted = null;
+	contractedNeighbors = null;
+	witnessCost = null;
+	witnessTouched = null;
+	witnessFrontier = null;
+	buildUpwardEdges();
+    }
+
+    // isCurrent -- Return true if and only if the map has not changed since
+    // the hierarchy was built or read.
+    public boolean isCurrent() {
+	return (map.version() == mapVersion);
+    }
+
+    // shortcutCount -- Return the number of shortcut edges in the hierarchy.
+    public int shortcutCount() {
+	int count = 0;
+	for (int e = 0; e < edgeCount; e++) {
+	    if (edgeFirst[e] >= 0)
+		count++;
+	}
+	return (count);
+    }
+
+    // unpack -- Append the locations along the original roads replaced by
+    // the given edge, not including the edge's "from" location, to the given
+    // path, which holds the given number of location ids and which must
+    // have room for them.  Return the new length of the path.
+    public int unpack(int edge, int[] path, int length) {
+	int[] stack = new int[16];
+	int top = 0;
+	stack[top++] = edge;
+	while (top > 0) {
+	    int e = stack[--top];
+	    if (edgeFirst[e] < 0) {
+		path[length++] = edgeTo[e];
+	    } else {
+		if (top + 2 > stack.length)
+		    stack = Arrays.copyOf(stack, 2 * stack.length);
+		// Push the second half first, so the first half comes out
+		// first ...
+		stack[top++] = edgeSecond[e];
+		stack[top++] = edgeFirst[e];
+	    }
+	}
+	return (length);
+    }
+
+    // roadCount -- Return the number of original roads replaced by the
+    // given edge.
+    public int roadCount(int edge) {
+	int count = 0;
+	int[] stack = new int[16];
+	int top = 0;
+	stack[top++] = edge;
+	while (top > 0) {
+	    int e = stack[--top];
+	    if (edgeFirst[e] < 0) {
+		count++;
+	    } else {
+		if (top + 2 > stack.length)
+		    stack = Arrays.copyOf(stack, 2 * stack.length);
+		stack[top++] = edgeSecond[e];
+		stack[top++] = edgeFirst[e];
+	    }
+	}
+	return (count);
+    }
+
+    // write -- Write the hierarchy to the file with the given pathname.
+    // Return false on error.
+    public boolean write(String filename) {
+	try {
+	    FileOutputStream fileOut = new FileOutputStream(filename);
+	    DataOutputStream out
+		= new DataOutputStream(new BufferedOutputStream(fileOut,
+								1 << 16));
+	    try {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(graph.locationCount());
+		out.writeInt(graph.roadCount());
+		out.writeInt(edgeCount);
+		for (int i = 0; i < rank.length; i++)
+		    out.writeInt(rank[i]);
+		for (int e = 0; e < edgeCount; e++) {
+		    out.writeInt(edgeFrom[e]);
+		    out.writeInt(edgeTo[e]);
+		    out.writeDouble(edgeCost[e]);
+		    out.writeInt(edgeFirst[e]);
+		    out.writeInt(edgeSecond[e]);
+		}
+	    } finally {
+		out.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+	return (true);
+    }
+
+    // read -- Read a hierarchy from the file with the given pathname, as
+    // written by the "write" method.  The file must have been written for
+    // a map with the same numbers of locations and roads as this one.
+    // Everything in the file is checked before the hierarchy is changed, so
+    // a file that cannot be read, or is corrupt, leaves the hierarchy as it
+    // was.  Return false on error.
+    public boolean read(String filename) {
+	CompactMap graph = map.compact();
+	int n = graph.locationCount();
+	int m = graph.roadCount();
+	int count;
+	int[] newRank;
+	int[] newFrom;
+	int[] newTo;
+	double[] newCost;
+	int[] newFirst;
+	int[] newSecond;
+	try {
+	    FileInputStream fileIn = new FileInputStream(filename);
+	    DataInputStream in
+		= new DataInputStream(new BufferedInputStream(fileIn,
+							      1 << 16));
+	    try {
+		if ((in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+		    System.err.printf("The file, %s, is not a hierarchy file.\n",
+				      filename);
+		    return (false);
+		}
+		if ((in.readInt() != n) || (in.readInt() != m)) {
+		    System.err.printf("The hierarchy file, %s, is for a different map.\n",
+				      filename);
+		    return (false);
+		}
+		count = in.readInt();
+		// Every edge takes 24 bytes, so a count that the file cannot
+		// hold is rejected before anything is allocated for it ...
+		require((count >= 0)
+			&& (24L * count + 4L * n + 20
+			    <= fileIn.getChannel().size()));
+		newRank = new int[n];
+		boolean[] ranked = new boolean[n];
+		for (int i = 0; i < n; i++) {
+		    newRank[i] = in.readInt();
+		    require((newRank[i] >= 0) && (newRank[i] < n)
+			    && !(ranked[newRank[i]]));
+		    ranked[newRank[i]] = true;
+		}
+		newFrom = new int[count];
+		newTo = new int[count];
+		newCost = new double[count];
+		newFirst = new int[count];
+		newSecond = new int[count];
+		for (int e = 0; e < count; e++) {
+		    newFrom[e] = in.readInt();
+		    newTo[e] = in.readInt();
+		    newCost[e] = in.readDouble();
+		    newFirst[e] = in.readInt();
+		    newSecond[e] = in.readInt();
+		    require((newFrom[e] >= 0) && (newFrom[e] < n)
+			    && (newTo[e] >= 0) && (newTo[e] < n));
+		    require((newCost[e] >= 0.0)
+			    && (newCost[e] < Double.POSITIVE_INFINITY));
+		    // A road edge names a road, and a shortcut names two
+		    // earlier edges ...
+		    if (newFirst[e] == -1)
+			require((newSecond[e] >= 0) && (newSecond[e] < m));
+		    else
+			require((newFirst[e] >= 0) && (newFirst[e] < e)
+				&& (newSecond[e] >= 0) && (newSecond[e] < e));
+		}
+	    } finally {
+		in.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	} catch (RuntimeException e) {
+	    // The contents of the file are not a valid hierarchy ...
+	    System.err.printf("The hierarchy file, %s, is corrupt.\n",
+			      filename);
+	    return (false);
+	}
+	this.graph = graph;
+	rank = newRank;
+	edgeCount = count;
+	edgeFrom = newFrom;
+	edgeTo = newTo;
+	edgeCost = newCost;
+	edgeFirst = newFirst;
+	edgeSecond = newSecond;
+	mapVersion = map.version();
+	buildUpwardEdges();
+	return (true);
+    }
+
+    // require -- Throw an IllegalArgumentException, reporting a corrupt
+    // hierarchy file, unless the given condition holds.
+    static void require(boolean condition) {
+	if (!condition)
+	    throw new IllegalArgumentException("corrupt hierarchy file");
+    }
+
+    // priority -- Return the contraction priority of the given location,
+    // which has not yet been contracted.  Lower values are contracted first.
+    double priority(int v) {
+	int removed = 0;
+	for (int i = 0; i < outCount[v]; i++)
+	    if (!(contracted[edgeTo[outEdges[v][i]]]))
+		removed++;
+	for (int i = 0; i < inCount[v]; i++)
+	    if (!(contracted[edgeFrom[inEdges[v][i]]]))
+		removed++;
+	int added = contract(v, true);
+	return (added - removed + contractedNeighbors[v]);
+    }
+
+    // contract -- Add the shortcuts needed to remove the given location from
+    // the remaining graph, returning the number of shortcuts.  If the second
+    // argument is true, only count the shortcuts that would be needed,
+    // without adding them.
+    int contract(int v, boolean simulate) {
+	int shortcuts = 0;
+	for (int i = 0; i < inCount[v]; i++) {
+	    int in = inEdges[v][i];
+	    int u = edgeFrom[in];
+	    if (contracted[u])
+		continue;
+	    // Find the most expensive path through this location from u ...
+	    double maxCost = -1.0;
+	    for (int j = 0; j < outCount[v]; j++) {
+		int out = outEdges[v][j];
+		int w = edgeTo[out];
+		if (!(contracted[w]) && (w != u))
+		    maxCost = Math.max(maxCost, edgeCost[in] + edgeCost[out]);
+	    }
+	    if (maxCost < 0.0)
+		continue;
+	    witnessSearch(u, v, maxCost);
+	    for (int j = 0; j < outCount[v]; j++) {
+		int out = outEdges[v][j];
+		int w = edgeTo[out];
+		if (contracted[w] || (w == u))
+		    continue;
+		double c = edgeCost[in] + edgeCost[out];
+		if (witnessCost[w] <= c)
+		    // There is a path at least as short avoiding v ...
+		    continue;
+		shortcuts++;
+		if (!simulate) {
+		    addEdge(u, w, c, in, out);
+		    // The shortcut is now the best known path to w ...
+		    if (witnessCost[w] == Double.POSITIVE_INFINITY)
+			witnessTouched[witnessTouchedCount++] = w;
+		    witnessCost[w] = c;
+		}
+	    }
+	}
+	return (shortcuts);
+    }
+
+    // witnessSearch -- Find the costs of shortest paths from the given
+    // location to other remaining locations, avoiding the location being
+    // contracted, giving up on paths that cost more than the given maximum
+    // or once a fixed number of locations have been settled.
+    void witnessSearch(int source, int avoid, double maxCost) {
+	for (int i = 0; i < witnessTouchedCount; i++)
+	    witnessCost[witnessTouched[i]] = Double.POSITIVE_INFINITY;
+	witnessTouchedCount = 0;
+	witnessFrontier.clear();
+	witnessCost[source] = 0.0;
+	witnessTouched[witnessTouchedCount++] = source;
+	witnessFrontier.insert(source, 0.0);
+	int settled = 0;
+	while (!(witnessFrontier.isEmpty())
+	       && (witnessFrontier.peekKey() <= maxCost)
+	       && (settled < WITNESS_LIMIT)) {
+	    int u = witnessFrontier.removeMin();
+	    settled++;
+	    for (int i = 0; i < outCount[u]; i++) {
+		int e = outEdges[u][i];
+		int w = edgeTo[e];
+		if (contracted[w] || (w == avoid))
+		    continue;
+		double c = witnessCost[u] + edgeCost[e];
+		if (c < witnessCost[w]) {
+		    if (witnessCost[w] == Double.POSITIVE_INFINITY)
+			witnessTouched[witnessTouchedCount++] = w;
+		    witnessCost[w] = c;
+		    witnessFrontier.insert(w, c);
+		}
+	    }
+	}
+    }
+
+    // addEdge -- Add an edge to the hierarchy, and to the working lists of
+    // edges leading out of and into locations.  Return the id of the edge.
+    int addEdge(int from, int to, double cost, int first, int second) {
+	if (edgeCount == edgeFrom.length) {
+	    int capacity = 2 * edgeFrom.length;
+	    edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+	    edgeTo = Arrays.copyOf(edgeTo, capacity);
+	    edgeCost = Arrays.copyOf(edgeCost, capacity);
+	    edgeFirst = Arrays.copyOf(edgeFirst, capacity);
+	    edgeSecond = Arrays.copyOf(edgeSecond, capacity);
+	}
+	int e = edgeCount++;
+	edgeFrom[e] = from;
+	edgeTo[e] = to;
+	edgeCost[e] = cost;
+	edgeFirst[e] = first;
+	edgeSecond[e] = second;
+	if (outCount[from] == outEdges[from].length)
+	    outEdges[from] = Arrays.copyOf(outEdges[from], 2 * outCount[from]);
+	outEdges[from][outCount[from]++] = e;
+	if (inCount[to] == inEdges[to].length)
+	    inEdges[to] = Arrays.copyOf(inEdges[to], 2 * inCount[to]);
+	inEdges[to][inCount[to]++] = e;
+	return (e);
+    }
+
+    // buildUpwardEdges -- Sort the edges of the hierarchy into those leading
+    // from each location to locations of higher rank, and those leading into
+    // each location from locations of higher rank.
+    void buildUpwardEdges() {
+	int n = rank.length;
+	firstUp = new int[n + 1];
+	firstDown = new int[n + 1];
+	for (int e = 0; e < edgeCount; e++) {
+	    if (rank[edgeTo[e]] > rank[edgeFrom[e]])
+		firstUp[edgeFrom[e] + 1]++;
+	    else
+		firstDown[edgeTo[e] + 1]++;
+	}
+	for (int i = 0; i < n; i++) {
+	    firstUp[i + 1] += firstUp[i];
+	    firstDown[i + 1] += firstDown[i];
+	}
+	upEdge = new int[firstUp[n]];
+	downEdge = new int[firstDown[n]];
+	int[] nextUp = Arrays.copyOf(firstUp, n);
+	int[] nextDown = Arrays.copyOf(firstDown, n);
+	for (int e = 0; e < edgeCount; e++) {
+	    if (rank[edgeTo[e]] > rank[edgeFrom[e]])
+		upEdge[nextUp[edgeFrom[e]]++] = e;
+	    else
+		downEdge[nextDown[edgeTo[e]]++] = e;
+	}
+    }
+
+}
+
@@ -0,0 +1,148 @@
+//
+// DistanceMatrix
+//
+// This class holds the costs of the shortest paths from each of a list of
+// source locations to each of a list of target locations on a map, as a
+// dense matrix with a row for each source and a column for each target.
+// It is computed by running Dijkstra's algorithm once from each source,
+// over the compact form of the map, with each run stopping as soon as the
+// shortest paths to all of the targets are known.  The runs are independent
+// of each other, so they are divided among the threads of a ForkJoinPool,
+// with each task reusing a single ShortestPaths workspace for all of the
+// sources that it handles.  Optionally, the shortest paths themselves are
+// kept, as arrays of location ids, so that any of them can later be
+// returned as a Waypoint.  An entry of the matrix is positive infinity when
+// there is no path from the source to the target.
+//
+// Created Sat Oct 17 17:35:20 PDT 2026
+//
+
+
+import java.util.concurrent.*;
+
+
+// SourceSweep is a ForkJoin task that fills in a range of the rows of a
+// DistanceMatrix, splitting the range in half until it is no larger than
+// the given grain size ...
+class SourceSweep extends RecursiveAction {
+    static final long serialVersionUID = 1;  // Version 1
+    DistanceMatrix matrix;
+    int first;
+    int last;
+    int grain;
+
+    // Constructor with the matrix, the range of rows, and the grain size
+    // specified ...
+    SourceSweep(DistanceMatrix matrix, int first, int last, int grain) {
+	this.matrix = matrix;
+	this.first = first;
+	this.last = last;
+	this.grain = grain;
+    }
+
+    // compute -- Fill in the rows, directly or by splitting the range.
+    protected void compute() {
+	if (last - first <= grain) {
+	    if (last > first)
+		matrix.sweep(new ShortestPaths(matrix.graph), first, last);
+	} else {
+	    int middle = (first + last) / 2;
+	    invokeAll(new SourceSweep(matrix, first, middle, grain),
+		      new SourceSweep(matrix, middle, last, grain));
+	}
+    }
+
+}
+
+
+public class DistanceMatrix {
+    CompactMap graph;
+    String[] sources;
+    String[] targets;
+    int[] sourceIds;
+    int[] targetIds;
+    double[][] cost;     // [source][target] -> cost of shortest path
+    int[][][] paths;     // [source][target] -> location ids, or null
+
+    // Constructor with the map, the source and target location ids, and
+    // whether or not to keep the paths specified.  The matrix is computed
+    // using the given pool of threads.
+    DistanceMatrix(Map map, int[] sourceIds, int[] targetIds,
+		   boolean keepPaths, ForkJoinPool pool) {
+	this.graph = map.compact();
+	this.sourceIds = sourceIds;
+	this.targetIds = targetIds;
+	this.sources = new String[sourceIds.length];
+	this.targets = new String[targetIds.length];
+	for (int i = 0; i < sourceIds.length; i++)
+	    this.sources[i] = graph.locations[sourceIds[i]].name;
+	for (int j = 0; j < targetIds.length; j++)
+	    this.targets[j] = graph.locations[targetIds[j]].name;
+	this.cost = new double[sourceIds.length][];
+	if (keepPaths)
+	    this.paths = new int[sourceIds.length][][];
+	int grain = Math.max(1, sourceIds.length
+			     / (4 * pool.getParallelism()));
+	pool.invoke(new SourceSweep(this, 0, sourceIds.length, grain));
+    }
+
+    // sourceCount -- Return the number of rows of the matrix.
+    public int sourceCount() {
+	return (sources.length);
+    }
+
+    // targetCount -- Return the number of columns of the matrix.
+    public int targetCount() {
+	return (targets.length);
+    }
+
+    // cost -- Return the cost of the shortest path from the source with the
+    // first given index to the target with the second given index, or
+    // positive infinity if there is no such path.
+    public double cost(int source, int target) {
+	return (cost[source][target]);
+    }
+
+    // costs -- Return the matrix of shortest path costs, with a row for
+    // each source and a column for each target.  The returned array should
+    // not be modified.
+    public double[][] costs() {
+	return (cost);
+    }
+
+    // hasPaths -- Return true if and only if the shortest paths were kept.
+    public boolean hasPaths() {
+	return (paths != null);
+    }
+
+    // path -- Return the Waypoint at the end of the shortest path from the
+    // source with the first given index to the target with the second given
+    // index, or null if there is no such path or the paths were not kept.
+    public Waypoint path(int source, int target) {
+	if ((paths == null) || (paths[source][target] == null))
+	    return (null);
+	int[] path = paths[source][target];
+	return (graph.toWaypoint(path, path.length));
+    }
+
+    // sweep -- Fill in the rows of the matrix for the sources with indices
+    // from "first" up to, but not including, "last", using the given
+    // workspace.
+    void sweep(ShortestPaths workspace, int first, int last) {
+	for (int i = first; i < last; i++) {
+	    workspace.run(sourceIds[i], targetIds);
+	    double[] row = new double[targetIds.length];
+	    for (int j = 0; j < targetIds.length; j++)
+		row[j] = workspace.cost(targetIds[j]);
+	    cost[i] = row;
+	    if (paths != null) {
+		int[][] rowPaths = new int[targetIds.length][];
+		for (int j = 0; j < targetIds.length; j++)
+		    rowPaths[j] = workspace.path(targetIds[j]);
+		paths[i] = rowPaths;
+	    }
+	}
+    }
+
+}
+
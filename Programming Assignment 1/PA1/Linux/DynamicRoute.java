@@ -0,0 +1,306 @@
+//
+// DynamicRoute
+//
+// This class maintains a shortest path from one location on a map to
+// another as the map changes, using Lifelong Planning A* (LPA*).  Each
+// location has two cost estimates:  "g", its cost as of the most recent
+// search, and "rhs", the cost of the best path to it through the "g" values
+// of the locations with roads leading into it.  A location whose two
+// estimates differ is "inconsistent", and only inconsistent locations are
+// kept in the frontier, ordered as in A* search, with ties broken in favor
+// of the smaller of the two cost estimates.  The first search expands
+// locations just as A* search with repeated state checking would.  The
+// route registers itself as a MapListener, and, when roads are added,
+// removed, or change cost, only the "rhs" values of the locations at the
+// ends of the changed roads are recomputed.  The next search then
+// expands only the locations whose costs are affected by the changes, so
+// that repairing a route after a few changes usually takes a small fraction
+// of the time needed to find it again from scratch.  (D* Lite is the
+// variant of this algorithm for an initial location that moves; here, both
+// ends of the route stay fixed.)
+//
+// Since roads can be added and removed, this class works with the Location
+// and Road objects of the map, rather than its compact form, keeping its
+// own lists of the roads leading into each location.  A heuristic function
+// may be provided, but it must be consistent, even after changes to road
+// costs, or the repaired routes may not be shortest ones.  Likewise, road
+// costs must be positive:  locations joined by a cycle of roads with no
+// cost can keep each other's old costs after a change, as LPA* cannot tell
+// that none of them still has a path to it at that cost.  The number of
+// node expansions performed by the most recent search is kept in
+// "expansionCount".  A DynamicRoute must not be used by more than one
+// thread at a time, and it should be closed when it is no longer needed,
+// so that the map stops reporting changes to it.
+//
+// Created Sat Oct 17 19:26:18 PDT 2026
+// Modified Sun Oct 18 09:58:24 PDT 2026
+//   (Ordered the whole frontier by both parts of its keys.)
+//
+
+
+import java.util.*;
+
+
+// RouteKeyHeap is an IndexedHeap of locations in which locations with equal
+// keys are ordered by the tie-breaking keys of the DynamicRoute that holds
+// them, and then by id ...
+class RouteKeyHeap extends IndexedHeap {
+    DynamicRoute route;
+
+    // Constructor with the route that holds the heap and the initial
+    // capacity specified ...
+    RouteKeyHeap(DynamicRoute route, int capacity) {
+	super(capacity);
+	this.route = route;
+    }
+
+    // before -- Return true if and only if the first location should be
+    // removed from the heap before the second.
+    boolean before(int a, int b) {
+	double ka = key[a];
+	double kb = key[b];
+	if (ka != kb)
+	    return (ka < kb);
+	double sa = route.secondKey[a];
+	double sb = route.secondKey[b];
+	if (sa != sb)
+	    return (sa < sb);
+	return (a < b);
+    }
+
+}
+
+
+public class DynamicRoute implements MapListener {
+    Map graph;
+    Location start;
+    Location goal;
+    Heuristic heuristic;
+    double[] g;                  // location -> cost at last expansion
+    double[] rhs;                // location -> cost through predecessors
+    double[] h;                  // location -> heuristic value, or NaN
+    double[] secondKey;          // location -> tie-breaking frontier key
+    List<List<Road>> incoming;   // location -> roads leading into it
+    RouteKeyHeap frontier;
+    Road[] via;                  // location -> road toward the destination
+    int[] queue;                 // locations reached from the destination
+    boolean started = false;
+    public int expansionCount = 0;
+
+    // Constructor with the map and the initial and destination location
+    // names specified.  The route is registered with the map, so that it is
+    // told about changes to roads.  If either location is unknown, the
+    // route is never found.
+    public DynamicRoute(Map graph, String initialLoc, String destinationLoc) {
+	this.graph = graph;
+	this.start = graph.findLocation(initialLoc);
+	this.goal = graph.findLocation(destinationLoc);
+	this.heuristic = new Heuristic();
+	int n = graph.locations.size();
+	this.g = new double[n];
+	this.rhs = new double[n];
+	this.h = new double[n];
+	this.secondKey = new double[n];
+	this.incoming = new ArrayList<List<Road>>(n);
+	this.frontier = new RouteKeyHeap(this, n);
+	Arrays.fill(this.g, Double.POSITIVE_INFINITY);
+	Arrays.fill(this.rhs, Double.POSITIVE_INFINITY);
+	Arrays.fill(this.h, Double.NaN);
+	for (int i = 0; i < n; i++)
+	    this.incoming.add(new ArrayList<Road>());
+	for (Location loc : graph.locations)
+	    for (Road r : loc.roads)
+		this.incoming.get(r.toLocation.id).add(r);
+	graph.addListener(this);
+    }
+
+    // setHeuristic -- Use the given consistent heuristic function to guide
+    // the search.  This must be done before the first search.
+    public void setHeuristic(Heuristic heuristic) {
+	this.heuristic = heuristic;
+    }
+
+    // close -- Stop listening for changes to the map.  The route should not
+    // be searched again.
+    public void close() {
+	graph.removeListener(this);
+    }
+
+    // search -- Find a shortest path from the initial location to the
+    // destination location, reusing the results of previous searches as
+    // much as the changes made to the map since then allow.  Return the
+    // Waypoint at the end of the solution path, or null if there is no
+    // path.
+    public Waypoint search() {
+	expansionCount = 0;
+	if ((start == null) || (goal == null))
+	    return (null);
+	if (!started) {
+	    heuristic.setDestination(goal);
+	    rhs[start.id] = 0.0;
+	    enqueue(start.id);
+	    started = true;
+	}
+	int t = goal.id;
+	while (!(frontier.isEmpty())
+	       && (isBefore(frontier.peek(), t) || (rhs[t] != g[t]))) {
+	    int loc = frontier.removeMin();
+	    expansionCount++;
+	    if (g[loc] > rhs[loc]) {
+		// Overconsistent, so the new, lower cost is now settled ...
+		g[loc] = rhs[loc];
+	    } else {
+		// Underconsistent, so the old cost is no longer available ...
+		g[loc] = Double.POSITIVE_INFINITY;
+		update(loc);
+	    }
+	    for (Road r : graph.locations.get(loc).roads)
+		update(r.toLocation.id);
+	}
+	return (solution());
+    }
+
+    // cost -- Return the cost of the path found by the most recent search,
+    // or positive infinity if no path was found.
+    public double cost() {
+	if ((goal == null) || !started)
+	    return (Double.POSITIVE_INFINITY);
+	return (g[goal.id]);
+    }
+
+    // locationAdded -- Make room for the new location.
+    public void locationAdded(Location loc) {
+	int n = loc.id + 1;
+	if (n > g.length) {
+	    int size = Math.max(n, 2 * g.length);
+	    int old = g.length;
+	    g = Arrays.copyOf(g, size);
+	    rhs = Arrays.copyOf(rhs, size);
+	    h = Arrays.copyOf(h, size);
+	    secondKey = Arrays.copyOf(secondKey, size);
+	    Arrays.fill(g, old, size, Double.POSITIVE_INFINITY);
+	    Arrays.fill(rhs, old, size, Double.POSITIVE_INFINITY);
+	    Arrays.fill(h, old, size, Double.NaN);
+	}
+	while (incoming.size() < n)
+	    incoming.add(new ArrayList<Road>());
+    }
+
+    // roadAdded -- Note the new road, and recompute the "rhs" value of the
+    // location that it leads to.
+    public void roadAdded(Road road) {
+	incoming.get(road.toLocation.id).add(road);
+	if (started)
+	    update(road.toLocation.id);
+    }
+
+    // roadRemoved -- Forget the road, and recompute the "rhs" value of the
+    // location that it led to.
+    public void roadRemoved(Road road) {
+	incoming.get(road.toLocation.id).remove(road);
+	if (started)
+	    update(road.toLocation.id);
+    }
+
+    // roadCostChanged -- Recompute the "rhs" value of the location that the
+    // road leads to.
+    public void roadCostChanged(Road road, double oldCost) {
+	if (started)
+	    update(road.toLocation.id);
+    }
+
+    // update -- Recompute the "rhs" value of the location with the given
+    // id, and place it in the frontier if and only if it is inconsistent.
+    void update(int loc) {
+	if (loc != start.id) {
+	    double best = Double.POSITIVE_INFINITY;
+	    for (Road r : incoming.get(loc)) {
+		double c = g[r.fromLocation.id] + r.cost;
+		if (c < best)
+		    best = c;
+	    }
+	    rhs[loc] = best;
+	}
+	if (frontier.contains(loc))
+	    frontier.remove(loc);
+	if (g[loc] != rhs[loc])
+	    enqueue(loc);
+    }
+
+    // enqueue -- Place the location with the given id in the frontier,
+    // ordered by the smaller of its two cost estimates plus its heuristic
+    // value.  The smaller cost estimate is remembered, so that ties, both
+    // within the frontier and with the destination, can be broken in favor
+    // of the smaller one.
+    void enqueue(int loc) {
+	double k = Math.min(g[loc], rhs[loc]);
+	secondKey[loc] = k;
+	frontier.insert(loc, k + heuristic(loc));
+    }
+
+    // isBefore -- Return true if and only if the location with the first
+    // given id, which is in the frontier, would be expanded before the
+    // location with the second given id, if that were in the frontier.
+    boolean isBefore(int loc, int other) {
+	double k = Math.min(g[other], rhs[other]);
+	double first = k + heuristic(other);
+	double key = frontier.getKey(loc);
+	return ((key < first) || ((key == first) && (secondKey[loc] < k)));
+    }
+
+    // heuristic -- Return the heuristic value of the location with the
+    // given id, computing it only the first time that it is needed.
+    double heuristic(int loc) {
+	if (Double.isNaN(h[loc]))
+	    h[loc] = heuristic.heuristicFunction(graph.locations.get(loc));
+	return (h[loc]);
+    }
+
+    // solution -- Return the Waypoint at the end of the shortest path to the
+    // destination, or null if there is no path.  The path is found by a
+    // breadth-first search back from the destination, following only roads
+    // whose costs account for the whole difference between the costs of
+    // their ends, and never visiting a location twice, so that cycles of
+    // roads with no cost cannot be followed forever.
+    Waypoint solution() {
+	if (g[goal.id] == Double.POSITIVE_INFINITY)
+	    return (null);
+	if ((via == null) || (via.length < g.length)) {
+	    via = new Road[g.length];
+	    queue = new int[g.length];
+	}
+	int head = 0;
+	int tail = 0;
+	queue[tail++] = goal.id;
+	while ((head < tail) && (via[start.id] == null)
+	       && (start != goal)) {
+	    int loc = queue[head++];
+	    for (Road r : incoming.get(loc)) {
+		int from = r.fromLocation.id;
+		if ((via[from] == null) && (from != goal.id)
+		    && (g[from] + r.cost <= g[loc])) {
+		    via[from] = r;
+		    queue[tail++] = from;
+		}
+	    }
+	}
+	Waypoint wp = null;
+	if ((via[start.id] != null) || (start == goal)) {
+	    wp = new Waypoint(start);
+	    for (Location loc = start; loc != goal; ) {
+		Road r = via[loc.id];
+		Waypoint next = new Waypoint(r.toLocation, wp);
+		next.depth = wp.depth + 1;
+		next.partialPathCost = wp.partialPathCost + r.cost;
+		wp = next;
+		loc = r.toLocation;
+	    }
+	}
+	// Forget the roads followed, ready for the next search ...
+	for (int i = 0; i < tail; i++)
+	    via[queue[i]] = null;
+	return (wp);
+    }
+
+}
+
@@ -11,11 +11,24 @@
 // insertion methods are overloaded to accept either individual Waypoint
 // objects or lists of multiple Waypoint objects.  This class is intended to
 // to be used to implement the frontier (i.e., the "fringe" or "open list") of
-// of nodes in a search tree.
+// of nodes in a search tree.  A count of the nodes in the list for each
+// location name is maintained alongside the list, so that the "contains"
+// methods can answer in constant time.  The counts are kept in a hash table
+// using open addressing with linear probing, over an array of names and a
+// parallel array of primitive counts, so no count is ever boxed.  The list
+// itself is stored as a growable circular array.  As a result, adding and
+// removing nodes at either end does not allocate any objects once the
+// array and the table have grown to the size of the frontier.
 //
 // David Noelle -- Created Sun Feb 11 18:39:40 PST 2007
 //                 Modified Wed Sep 15 00:09:35 PDT 2010
 //                   (Implemented overloaded "contains" function.)
+//                 Modified Sat Oct 17 11:02:16 PDT 2026
+//                   (Indexed fringe members by location name.)
+//                 Modified Sat Oct 17 11:40:03 PDT 2026
+//                   (Replaced linked list with circular array deque.)
+//                 Modified Sun Oct 18 08:17:45 PDT 2026
+//                   (Counted fringe members without boxing the counts.)
 //
 
 
@@ -23,11 +36,17 @@ import java.util.*;
 
 
 public class Frontier {
-    List<Waypoint> fringe;
+    Deque<Waypoint> fringe;
+    String[] countedNames;   // hash slot -> location name, or null
+    int[] counts;            // hash slot -> fringe members at that location
+    int countedCount;        // number of location names in the table
 
     // Default constructor ...
     public Frontier() {
-	fringe = new LinkedList<Waypoint>();
+	fringe = new ArrayDeque<Waypoint>();
+	countedNames = new String[16];
+	counts = new int[16];
+	countedCount = 0;
     }
 
     // isEmpty -- Return true if and only if there are currently no nodes in 
@@ -36,6 +55,11 @@ public class Frontier {
 	return (fringe.isEmpty());
     }
 
+    // size -- Return the number of nodes currently in the frontier.
+    public int size() {
+	return (fringe.size());
+    }
+
     // removeTop -- Return the Waypoint object at the top of the frontier
     // list.  Also, remove this node from the frontier.  Return null if the
     // frontier is empty.
@@ -43,8 +67,8 @@ public class Frontier {
 	if (fringe.isEmpty()) {
 	    return (null);
 	} else {
-	    Waypoint top = fringe.get(0);
-	    fringe.remove(0);
+	    Waypoint top = fringe.pollFirst();
+	    forget(top);
 	    return (top);
 	}
     }
@@ -52,7 +76,8 @@ public class Frontier {
     // addToTop -- Add the given Waypoint object to the top of the frontier
     // list.
     public void addToTop(Waypoint wp) {
-	fringe.add(0, wp);
+	fringe.addFirst(wp);
+	remember(wp);
     }
 
     // addToTop -- Add the given list of Waypoint objects to the top of the 
@@ -66,7 +91,8 @@ public class Frontier {
     // addToBottom -- Add the given Waypoint object to the bottom of the 
     // frontier list.
     public void addToBottom(Waypoint wp) {
-	fringe.add(wp);
+	fringe.addLast(wp);
+	remember(wp);
     }
 
     // addToBottom -- Add the given list of Waypoint objects to the bottom of
@@ -80,14 +106,9 @@ public class Frontier {
     // contains -- Return true if and only if the frontier contains a
     // Waypoint with the given Location name.
     public boolean contains(String name) {
-	// This linear search is very inefficient, but it cannot be avoided
-	// without maintaining a parallel data structure containing the 
-	// fringe members (e.g., a HashSet).
-	for (Waypoint element : fringe)
-	    if (name.equals(element.loc.name))
-		return (true);
-	// The location was not found in the fringe ...
-	return (false);
+	// The parallel count of fringe members by location name avoids a
+	// linear search through the fringe ...
+	return (countedNames[slot(name)] != null);
     }
 
     // contains -- Return true if and only if the frontier contains a
@@ -103,5 +124,82 @@ public class Frontier {
 	return (contains(wp.loc));
     }
 
+    // remember -- Count the given Waypoint object, which has just been
+    // added to the fringe, in the index of fringe members.
+    void remember(Waypoint wp) {
+	String name = wp.loc.name;
+	int s = slot(name);
+	if (countedNames[s] == null) {
+	    if (2 * (countedCount + 1) > countedNames.length) {
+		grow();
+		s = slot(name);
+	    }
+	    countedNames[s] = name;
+	    counts[s] = 0;
+	    countedCount++;
+	}
+	counts[s]++;
+    }
+
+    // forget -- Remove the given Waypoint object, which has just been
+    // taken out of the fringe, from the index of fringe members.
+    void forget(Waypoint wp) {
+	int s = slot(wp.loc.name);
+	if (--counts[s] == 0)
+	    vacate(s);
+    }
+
+    // slot -- Return the hash slot holding the given location name, or the
+    // empty slot at which it would be added.
+    int slot(String name) {
+	int mask = countedNames.length - 1;
+	int s = home(name, mask);
+	while ((countedNames[s] != null) && !(countedNames[s].equals(name)))
+	    s = (s + 1) & mask;
+	return (s);
+    }
+
+    // vacate -- Empty the given hash slot, moving back any later names in
+    // the same run of occupied slots that could no longer be found.
+    void vacate(int s) {
+	int mask = countedNames.length - 1;
+	countedNames[s] = null;
+	countedCount--;
+	for (int t = (s + 1) & mask; countedNames[t] != null;
+	     t = (t + 1) & mask) {
+	    // A name may fill the empty slot only if that slot lies between
+	    // the name's home slot and its current slot ...
+	    int h = home(countedNames[t], mask);
+	    if (((t - h) & mask) >= ((t - s) & mask)) {
+		countedNames[s] = countedNames[t];
+		counts[s] = counts[t];
+		countedNames[t] = null;
+		s = t;
+	    }
+	}
+    }
+
+    // grow -- Move every location name into a table twice as large.
+    void grow() {
+	String[] oldNames = countedNames;
+	int[] oldCounts = counts;
+	countedNames = new String[2 * oldNames.length];
+	counts = new int[2 * oldNames.length];
+	for (int i = 0; i < oldNames.length; i++) {
+	    if (oldNames[i] != null) {
+		int s = slot(oldNames[i]);
+		countedNames[s] = oldNames[i];
+		counts[s] = oldCounts[i];
+	    }
+	}
+    }
+
+    // home -- Return the hash slot at which a search for the given location
+    // name begins, in a table with the given mask.
+    static int home(String name, int mask) {
+	int h = name.hashCode();
+	return ((h ^ (h >>> 16)) & mask);
+    }
+
 }
 
@@ -0,0 +1,160 @@
+//
+// HashClosedSet
+//
+// This class implements a ClosedSetPolicy that records only the locations
+// that have been reached, in a hash table using open addressing with linear
+// probing over parallel arrays of primitive values, so that the time and
+// memory used by each search depend on how much of the map it explores, not
+// on the size of the map.  The table grows as locations are added, so that
+// it is never more than half full, and it is kept from one search to the
+// next, so that only a search that reaches more locations than any before
+// it allocates anything.
+//
+// Created Sun Oct 18 07:36:50 PDT 2026
+//
+
+
+import java.util.*;
+
+
+public class HashClosedSet implements ClosedSetPolicy {
+    static final int EMPTY = -1;
+    int[] keys;              // slot -> location id, or EMPTY
+    boolean[] closed;        // slot -> already expanded
+    int[] frontierNode;      // slot -> frontier node, or -1
+    double[] bestCost;       // slot -> cheapest cost found
+    int mask;                // table size, minus one
+    int count = 0;           // number of locations recorded
+    int lastLoc = EMPTY;     // the location most recently looked up
+    int lastSlot = 0;        // its slot
+
+    // Constructor with no arguments ...
+    public HashClosedSet() {
+	allocate(1 << 10);
+    }
+
+    // start -- Forget every location, before a search of a map with the
+    // given number of locations.
+    public void start(int locationCount) {
+	if (count > 0) {
+	    Arrays.fill(keys, EMPTY);
+	    count = 0;
+	}
+	lastLoc = EMPTY;
+    }
+
+    // isClosed -- Return true if the given location has been expanded.
+    public boolean isClosed(int loc) {
+	int slot = find(loc);
+	return ((keys[slot] == loc) && closed[slot]);
+    }
+
+    // close -- Record that the given location has been expanded, and that
+    // it no longer has a node in the frontier.
+    public void close(int loc) {
+	int slot = add(loc);
+	closed[slot] = true;
+	frontierNode[slot] = -1;
+    }
+
+    // frontierNode -- Return the frontier node for the given location, or
+    // -1 if there is none.
+    public int frontierNode(int loc) {
+	int slot = find(loc);
+	return ((keys[slot] == loc) ? frontierNode[slot] : -1);
+    }
+
+    // setFrontierNode -- Record that the given node is the frontier node
+    // for the given location.
+    public void setFrontierNode(int loc, int node) {
+	frontierNode[add(loc)] = node;
+    }
+
+    // improve -- Return true if the given cost is less than the cheapest
+    // cost found for the given location, recording it as the cheapest.
+    public boolean improve(int loc, double cost) {
+	int slot = add(loc);
+	if (cost >= bestCost[slot])
+	    return (false);
+	bestCost[slot] = cost;
+	return (true);
+    }
+
+    // find -- Return the slot holding the given location, or the empty
+    // slot at which it would be added.  The slot found is remembered, since
+    // the same location is usually looked up several times in a row.
+    int find(int loc) {
+	if (loc == lastLoc)
+	    return (lastSlot);
+	int slot = hash(loc) & mask;
+	while ((keys[slot] != loc) && (keys[slot] != EMPTY))
+	    slot = (slot + 1) & mask;
+	if (keys[slot] == loc) {
+	    lastLoc = loc;
+	    lastSlot = slot;
+	}
+	return (slot);
+    }
+
+    // add -- Return the slot holding the given location, adding it to the
+    // table, as neither closed nor in the frontier, if it is not there.
+    int add(int loc) {
+	int slot = find(loc);
+	if (keys[slot] == loc)
+	    return (slot);
+	if (2 * (count + 1) > keys.length) {
+	    grow();
+	    slot = find(loc);
+	}
+	keys[slot] = loc;
+	closed[slot] = false;
+	frontierNode[slot] = -1;
+	bestCost[slot] = Double.POSITIVE_INFINITY;
+	count++;
+	lastLoc = loc;
+	lastSlot = slot;
+	return (slot);
+    }
+
+    // grow -- Move every location into a table twice as large.
+    void grow() {
+	int[] oldKeys = keys;
+	boolean[] oldClosed = closed;
+	int[] oldFrontierNode = frontierNode;
+	double[] oldBestCost = bestCost;
+	allocate(2 * oldKeys.length);
+	for (int i = 0; i < oldKeys.length; i++) {
+	    int loc = oldKeys[i];
+	    if (loc == EMPTY)
+		continue;
+	    int slot = hash(loc) & mask;
+	    while (keys[slot] != EMPTY)
+		slot = (slot + 1) & mask;
+	    keys[slot] = loc;
+	    closed[slot] = oldClosed[i];
+	    frontierNode[slot] = oldFrontierNode[i];
+	    bestCost[slot] = oldBestCost[i];
+	}
+	lastLoc = EMPTY;
+    }
+
+    // allocate -- Make an empty table with the given number of slots, which
+    // must be a power of two.
+    void allocate(int size) {
+	keys = new int[size];
+	closed = new boolean[size];
+	frontierNode = new int[size];
+	bestCost = new double[size];
+	mask = size - 1;
+	Arrays.fill(keys, EMPTY);
+    }
+
+    // hash -- Return a hash code for the given location id, mixing its
+    // bits so that neighboring ids are spread across the table.
+    static int hash(int loc) {
+	int h = loc * 0x9e3779b9;
+	return (h ^ (h >>> 16));
+    }
+
+}
+
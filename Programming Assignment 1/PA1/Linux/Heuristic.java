@@ -7,9 +7,13 @@
 // the heuristic value of a given search tree node (i.e., Waypoint).  This
 // basic heuristic function assigns a value of zero to all nodes, but classes
 // that inherit from this one can override this behavior to do something
-// more reasonable.
+// more reasonable.  Heuristic values can also be requested for a location,
+// rather than for a search tree node, which is how searches that do not
+// build Waypoint objects for every node make use of heuristic functions.
 //
-// David Noelle -- Wed Feb 21 14:55:23 PST 2007
+// David Noelle -- Created Wed Feb 21 14:55:23 PST 2007
+//                 Modified Sat Oct 17 13:48:30 PDT 2026
+//                   (Added heuristic function of a location.)
 //
 
 
@@ -48,4 +52,14 @@ public class Heuristic {
 	return (0.0);
     }
 
+    // heuristicFunction -- Return the appropriate heuristic value for a
+    // search tree node at the given location.  By default, this wraps the
+    // location in a temporary Waypoint and calls the version of this method
+    // above, so classes that inherit from this one only need to override
+    // this version if their heuristic values depend on nothing but the
+    // location, and they want to avoid making the temporary Waypoint.
+    public double heuristicFunction(Location loc) {
+	return (heuristicFunction(new Waypoint(loc)));
+    }
+
 }
@@ -0,0 +1,282 @@
+//
+// LandmarkHeuristic
+//
+// This class extends the Heuristic class, providing an admissible heuristic
+// function based on "landmarks" (the "ALT" approach, combining A* search,
+// landmarks, and the triangle inequality).  A small number of locations on
+// the map are chosen as landmarks, and the costs of the shortest paths from
+// each landmark to every location, and from every location to each
+// landmark, are computed in advance.  By the triangle inequality, for any
+// landmark L, location n, and destination t, the cost of reaching t from n
+// is at least d(L,t) - d(L,n), and it is also at least d(n,L) - d(t,L).
+// The heuristic value of a location is the largest of these lower bounds
+// over all of the landmarks.  On road networks, this is usually a much
+// tighter bound than straight-line distance, and it respects one-way roads
+// and road costs that are not proportional to distance.
+//
+// Landmarks are chosen by "farthest" selection:  each new landmark is the
+// location whose shortest path to the nearest landmark already chosen is
+// as long as possible.  The tables of path costs are stored with the values
+// for all of the landmarks of a location next to each other, so that the
+// heuristic value of a location is computed from contiguous memory.  Since
+// the tables take a while to compute on a large map, they can be written to
+// a file and read back later, as long as the map has not changed.
+//
+// The tables hold the path costs of the map as it was when they were
+// computed or read, and they are not updated when the map changes.  Since
+// a lowered road cost, or a new road, can make them overestimate, the
+// version of the map is recorded along with them, and once the map has
+// changed, the heuristic value of every node is zero, which is always
+// admissible, until landmarks are chosen again.
+//
+// Created Sat Oct 17 15:52:14 PDT 2026
+// Modified Sun Oct 18 04:31:12 PDT 2026
+//   (Ignored tables made before the most recent change to the map.)
+// Modified Sun Oct 18 09:21:40 PDT 2026
+//   (Checked landmark files before using them.)
+//
+
+
+import java.io.*;
+import java.util.*;
+
+
+public class LandmarkHeuristic extends Heuristic {
+    static final int MAGIC = 0x4c4d524b;   // "LMRK"
+    static final int VERSION = 1;
+    Map map;
+    CompactMap graph;
+    int[] landmarks;           // landmark ids, in order of selection
+    double[] fromLandmark;     // [location * k + i] -> d(landmark i, location)
+    double[] toLandmark;       // [location * k + i] -> d(location, landmark i)
+    long mapVersion = -1;      // version of the map the tables describe
+
+    // Constructor with the map specified.  No landmarks are chosen, so the
+    // heuristic value of every node is zero until landmarks are chosen or
+    // read from a file.
+    public LandmarkHeuristic(Map map) {
+	this.map = map;
+	this.graph = map.compact();
+	this.landmarks = new int[0];
+	this.fromLandmark = new double[0];
+	this.toLandmark = new double[0];
+    }
+
+    // Constructor with the map and the number of landmarks specified.  The
+    // landmarks are chosen, and their path cost tables are computed,
+    // immediately.
+    public LandmarkHeuristic(Map map, int landmarkCount) {
+	this(map);
+	chooseLandmarks(landmarkCount);
+    }
+
+    // landmarkCount -- Return the number of landmarks in use.
+    public int landmarkCount() {
+	return (landmarks.length);
+    }
+
+    // chooseLandmarks -- Choose the given number of landmarks on the map,
+    // and compute the tables of path costs to and from them.  Fewer
+    // landmarks are chosen if the map has too few locations.
+    public void chooseLandmarks(int landmarkCount) {
+	mapVersion = map.version();
+	graph = map.compact();
+	int n = graph.locationCount();
+	int k = Math.min(landmarkCount, n);
+	ShortestPaths forward = new ShortestPaths(graph);
+	ShortestPaths backward = new ShortestPaths(map.reverseCompact());
+	landmarks = new int[k];
+	fromLandmark = new double[n * k];
+	toLandmark = new double[n * k];
+	double[] nearest = new double[n];   // cost to nearest landmark
+	Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+	// Start from the location farthest from an arbitrary location ...
+	int next = 0;
+	if (n > 0) {
+	    forward.run(0);
+	    next = farthest(forward.cost, landmarks, 0);
+	}
+	for (int i = 0; i < k; i++) {
+	    landmarks[i] = next;
+	    forward.run(next);
+	    backward.run(next);
+	    for (int loc = 0; loc < n; loc++) {
+		fromLandmark[loc * k + i] = forward.cost(loc);
+		toLandmark[loc * k + i] = backward.cost(loc);
+		nearest[loc] = Math.min(nearest[loc], forward.cost(loc));
+	    }
+	    next = farthest(nearest, landmarks, i + 1);
+	}
+    }
+
+    // heuristicFunction -- Return the appropriate heuristic values for the
+    // given search tree node.  Note that the given Waypoint should not be
+    // modified within the body of this function.
+    public double heuristicFunction(Waypoint wp) {
+	return (heuristicFunction(wp.loc));
+    }
+
+    // heuristicFunction -- Return the largest lower bound, given by the
+    // triangle inequality and any of the landmarks, on the cost of reaching
+    // the destination from the given location.  Bounds involving locations
+    // that cannot be reached from, or cannot reach, a landmark are ignored.
+    // If the map has changed since the tables were made, zero is returned.
+    public double heuristicFunction(Location loc) {
+	int k = landmarks.length;
+	if ((destination == null) || (k == 0) || !(isCurrent()))
+	    return (0.0);
+	int n = loc.id * k;
+	int t = destination.id * k;
+	double hVal = 0.0;
+	for (int i = 0; i < k; i++) {
+	    double bound = fromLandmark[t + i] - fromLandmark[n + i];
+	    if ((bound > hVal) && (bound < Double.POSITIVE_INFINITY))
+		hVal = bound;
+	    bound = toLandmark[n + i] - toLandmark[t + i];
+	    if ((bound > hVal) && (bound < Double.POSITIVE_INFINITY))
+		hVal = bound;
+	}
+	return (hVal);
+    }
+
+    // isCurrent -- Return true if and only if the map has not changed since
+    // the tables of path costs were computed or read.
+    public boolean isCurrent() {
+	return (map.version() == mapVersion);
+    }
+
+    // write -- Write the landmarks and their tables of path costs to the
+    // file with the given pathname.  Return false on error.
+    public boolean write(String filename) {
+	try {
+	    FileOutputStream fileOut = new FileOutputStream(filename);
+	    DataOutputStream out
+		= new DataOutputStream(new BufferedOutputStream(fileOut,
+								1 << 16));
+	    try {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(graph.locationCount());
+		out.writeInt(graph.roadCount());
+		out.writeInt(landmarks.length);
+		for (int i = 0; i < landmarks.length; i++)
+		    out.writeInt(landmarks[i]);
+		for (int i = 0; i < fromLandmark.length; i++)
+		    out.writeDouble(fromLandmark[i]);
+		for (int i = 0; i < toLandmark.length; i++)
+		    out.writeDouble(toLandmark[i]);
+	    } finally {
+		out.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+	return (true);
+    }
+
+    // read -- Read landmarks and their tables of path costs from the file
+    // with the given pathname, as written by the "write" method.  The file
+    // must have been written for a map with the same numbers of locations
+    // and roads as this one.  Everything in the file is checked before the
+    // tables are changed, so a file that cannot be read, or is corrupt,
+    // leaves the heuristic as it was.  Return false on error.
+    public boolean read(String filename) {
+	CompactMap graph = map.compact();
+	int n = graph.locationCount();
+	int[] newLandmarks;
+	double[] newFrom;
+	double[] newTo;
+	try {
+	    FileInputStream fileIn = new FileInputStream(filename);
+	    DataInputStream in
+		= new DataInputStream(new BufferedInputStream(fileIn,
+							      1 << 16));
+	    try {
+		if ((in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+		    System.err.printf("The file, %s, is not a landmark file.\n",
+				      filename);
+		    return (false);
+		}
+		if ((in.readInt() != n)
+		    || (in.readInt() != graph.roadCount())) {
+		    System.err.printf("The landmark file, %s, is for a different map.\n",
+				      filename);
+		    return (false);
+		}
+		int k = in.readInt();
+		// Every landmark takes 4 bytes, and 16 more for each location,
+		// so a count that the file cannot hold is rejected before
+		// anything is allocated for it ...
+		require((k > 0) && (k <= n)
+			&& ((long) n * k <= Integer.MAX_VALUE)
+			&& (16L * n * k + 4L * k + 20
+			    <= fileIn.getChannel().size()));
+		newLandmarks = new int[k];
+		newFrom = new double[n * k];
+		newTo = new double[n * k];
+		for (int i = 0; i < k; i++) {
+		    newLandmarks[i] = in.readInt();
+		    require((newLandmarks[i] >= 0) && (newLandmarks[i] < n));
+		}
+		// A path cost is never negative, and it is infinite if there
+		// is no path ...
+		for (int i = 0; i < newFrom.length; i++) {
+		    newFrom[i] = in.readDouble();
+		    require(newFrom[i] >= 0.0);
+		}
+		for (int i = 0; i < newTo.length; i++) {
+		    newTo[i] = in.readDouble();
+		    require(newTo[i] >= 0.0);
+		}
+	    } finally {
+		in.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	} catch (RuntimeException e) {
+	    // The contents of the file are not valid landmark tables ...
+	    System.err.printf("The landmark file, %s, is corrupt.\n", filename);
+	    return (false);
+	}
+	this.graph = graph;
+	landmarks = newLandmarks;
+	fromLandmark = newFrom;
+	toLandmark = newTo;
+	mapVersion = map.version();
+	return (true);
+    }
+
+    // require -- Throw an IllegalArgumentException, reporting a corrupt
+    // landmark file, unless the given condition holds.
+    static void require(boolean condition) {
+	if (!condition)
+	    throw new IllegalArgumentException("corrupt landmark file");
+    }
+
+    // farthest -- Return the id of the location with the largest finite
+    // value in the given array, skipping the given number of locations at
+    // the start of the given list of landmarks.  Return 0 if there is no
+    // such location.
+    static int farthest(double[] values, int[] exclude, int excludeCount) {
+	int best = 0;
+	double bestValue = -1.0;
+	for (int loc = 0; loc < values.length; loc++) {
+	    double value = values[loc];
+	    if ((value == Double.POSITIVE_INFINITY) || (value <= bestValue))
+		continue;
+	    boolean excluded = false;
+	    for (int i = 0; i < excludeCount; i++)
+		if (exclude[i] == loc)
+		    excluded = true;
+	    if (!excluded) {
+		best = loc;
+		bestValue = value;
+	    }
+	}
+	return (best);
+    }
+
+}
+
@@ -0,0 +1,319 @@
+//
+// MapFile
+//
+// This class implements a compact binary file format for maps, along with
+// methods for writing a Map object to such a file and for reading such a
+// file back, and a "main" method that converts a map from the usual pair of
+// text files (a location file and a road file) into a single binary map
+// file.  Reading a binary map file is much faster than parsing the text
+// files, since the file is memory mapped and most of its contents are
+// copied directly into primitive arrays.  All values are stored in big
+// endian byte order, in the following sequence:
+//
+//   header:        int magic number, int format version,
+//                  int location count (n), int road count (m),
+//                  int string count (s), int string table size in bytes
+//   string table:  int[s+1] byte offsets of strings in the table,
+//                  followed by the UTF-8 bytes of all of the strings
+//   locations:     int[n] string index of each location name,
+//                  double[n] longitudes, double[n] latitudes
+//   roads:         int[n+1] index of the first road leaving each location,
+//                  int[m] id of the "to" location of each road,
+//                  double[m] cost of each road,
+//                  int[m] string index of each road name
+//
+// Location ids are positions in the map's list of locations, and the roads
+// are laid out in the compressed sparse row form used by CompactMap.  Each
+// distinct name is stored only once in the string table.  Every count,
+// offset, and index in a file is checked before it is used, so a corrupt
+// or truncated file is reported as such, rather than causing an exception.
+//
+// Created Sat Oct 17 13:02:45 PDT 2026
+// Modified Sun Oct 18 06:10:52 PDT 2026
+//   (Checked the contents of map files before using them.)
+// Modified Sun Oct 18 10:41:19 PDT 2026
+//   (Reported map files too large to be mapped into memory.)
+//
+
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+
+public class MapFile {
+    static final int MAGIC = 0x4d415046;   // "MAPF"
+    static final int VERSION = 1;
+
+    // write -- Write the given Map object, which should already have been
+    // read, to the binary map file with the given pathname.  Return false
+    // on error.
+    public static boolean write(Map map, String filename) {
+	CompactMap graph = map.compact();
+	int n = graph.locationCount();
+	int m = graph.roadCount();
+	// Build the string table ...
+	HashMap<String, Integer> stringIndex = new HashMap<String, Integer>();
+	List<byte[]> strings = new ArrayList<byte[]>();
+	int[] locationName = new int[n];
+	int[] roadName = new int[m];
+	for (int i = 0; i < n; i++)
+	    locationName[i] = intern(graph.locations[i].name,
+				     stringIndex, strings);
+	for (int r = 0; r < m; r++)
+	    roadName[r] = intern(graph.roadName[r], stringIndex, strings);
+	int tableSize = 0;
+	for (byte[] bytes : strings)
+	    tableSize += bytes.length;
+	try {
+	    FileOutputStream fileOut = new FileOutputStream(filename);
+	    DataOutputStream out
+		= new DataOutputStream(new BufferedOutputStream(fileOut,
+								1 << 16));
+	    try {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(n);
+		out.writeInt(m);
+		out.writeInt(strings.size());
+		out.writeInt(tableSize);
+		int offset = 0;
+		for (byte[] bytes : strings) {
+		    out.writeInt(offset);
+		    offset += bytes.length;
+		}
+		out.writeInt(offset);
+		for (byte[] bytes : strings)
+		    out.write(bytes);
+		for (int i = 0; i < n; i++)
+		    out.writeInt(locationName[i]);
+		for (int i = 0; i < n; i++)
+		    out.writeDouble(graph.locations[i].longitude);
+		for (int i = 0; i < n; i++)
+		    out.writeDouble(graph.locations[i].latitude);
+		for (int i = 0; i <= n; i++)
+		    out.writeInt(graph.firstRoad[i]);
+		for (int r = 0; r < m; r++)
+		    out.writeInt(graph.roadTarget[r]);
+		for (int r = 0; r < m; r++)
+		    out.writeDouble(graph.roadCost[r]);
+		for (int r = 0; r < m; r++)
+		    out.writeInt(roadName[r]);
+	    } finally {
+		out.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+	return (true);
+    }
+
+    // readCompact -- Memory map the binary map file with the given pathname
+    // and return its contents as a CompactMap.  Location objects are made
+    // for every location, with their names, coordinates, and ids filled in,
+    // but no Road objects are made, so the locations' lists of roads are
+    // left empty.  This is the fastest way to load a map for searches that
+    // work entirely from the compact form.  A file too large to be mapped
+    // into a single buffer, of more than 2 GB, cannot be read this way.
+    // Return null on error.
+    public static CompactMap readCompact(String filename) {
+	try {
+	    RandomAccessFile file = new RandomAccessFile(filename, "r");
+	    try {
+		FileChannel channel = file.getChannel();
+		if (channel.size() > Integer.MAX_VALUE) {
+		    System.err.printf("The map file, %s, is too large.\n",
+				      filename);
+		    return (null);
+		}
+		ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY,
+					     0, channel.size());
+		return (decode(buf));
+	    } finally {
+		file.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (null);
+	} catch (BufferUnderflowException e) {
+	    // The file is truncated ...
+	    System.err.printf("The map file, %s, is truncated.\n", filename);
+	    return (null);
+	} catch (RuntimeException e) {
+	    // The file holds values that make no sense ...
+	    System.err.printf("The map file, %s, is corrupt.\n", filename);
+	    return (null);
+	}
+    }
+
+    // read -- Read the binary map file with the given pathname into the
+    // given Map object, which should be empty.  Location and Road objects
+    // are made for the entire map, just as if the text files had been read,
+    // and the compact form of the map is recorded so that it need not be
+    // rebuilt.  Return false on error.
+    public static boolean read(Map map, String filename) {
+	if (!(map.locations.isEmpty())) {
+	    System.err.println("Binary map files can only be read into an empty map.");
+	    return (false);
+	}
+	CompactMap graph = readCompact(filename);
+	if (graph == null)
+	    return (false);
+	try {
+	    for (Location loc : graph.locations)
+		map.recordLocation(loc);
+	    for (int i = 0; i < graph.locationCount(); i++) {
+		Location from = graph.locations[i];
+		for (int r = graph.firstRoad[i]; r < graph.firstRoad[i + 1];
+		     r++) {
+		    Road road = new Road();
+		    road.name = graph.roadName[r];
+		    road.fromLocation = from;
+		    road.fromLocationName = from.name;
+		    road.toLocation = graph.locations[graph.roadTarget[r]];
+		    road.toLocationName = road.toLocation.name;
+		    road.cost = graph.roadCost[r];
+		    from.recordRoad(road);
+		}
+	    }
+	} catch (RuntimeException e) {
+	    // The file holds values that make no sense ...
+	    System.err.printf("The map file, %s, is corrupt.\n", filename);
+	    return (false);
+	}
+	map.compactForm = graph;
+	return (true);
+    }
+
+    // convert -- Read a map from the given location and road text files,
+    // and write it to the given binary map file.  Return false on error.
+    public static boolean convert(String locationFilename,
+				  String roadFilename, String mapFilename) {
+	Map map = new Map(locationFilename, roadFilename);
+	return (map.readLocations() && map.readRoads()
+		&& write(map, mapFilename));
+    }
+
+    // decode -- Extract a CompactMap from the given buffer, which holds the
+    // contents of a binary map file.  Return null if the buffer does not
+    // hold a map in a known format, and throw an IllegalArgumentException
+    // if its contents are not consistent.
+    static CompactMap decode(ByteBuffer buf) {
+	buf.order(ByteOrder.BIG_ENDIAN);
+	if ((buf.getInt() != MAGIC) || (buf.getInt() != VERSION)) {
+	    System.err.println("Not a binary map file of a known version.");
+	    return (null);
+	}
+	int n = buf.getInt();
+	int m = buf.getInt();
+	int s = buf.getInt();
+	int tableSize = buf.getInt();
+	// Make sure that the buffer holds everything that the counts call
+	// for, before anything is allocated ...
+	require((n >= 0) && (m >= 0) && (s >= 0) && (tableSize >= 0));
+	long needed = 4L * s + 4 + tableSize + 20L * n + 4L * (n + 1)
+	    + 16L * m;
+	if (needed > buf.remaining())
+	    throw new BufferUnderflowException();
+	// Read the string table ...
+	int[] stringOffset = getInts(buf, s + 1);
+	require(stringOffset[0] == 0);
+	for (int i = 0; i < s; i++)
+	    require((stringOffset[i] <= stringOffset[i + 1])
+		    && (stringOffset[i + 1] <= tableSize));
+	byte[] table = new byte[tableSize];
+	buf.get(table);
+	String[] strings = new String[s];
+	for (int i = 0; i < s; i++)
+	    strings[i] = new String(table, stringOffset[i],
+				    stringOffset[i + 1] - stringOffset[i],
+				    StandardCharsets.UTF_8);
+	// Read the locations ...
+	int[] locationName = getInts(buf, n);
+	for (int i = 0; i < n; i++)
+	    require((locationName[i] >= 0) && (locationName[i] < s));
+	double[] longitude = getDoubles(buf, n);
+	double[] latitude = getDoubles(buf, n);
+	Location[] locations = new Location[n];
+	for (int i = 0; i < n; i++) {
+	    locations[i] = new Location(strings[locationName[i]],
+					longitude[i], latitude[i]);
+	    locations[i].id = i;
+	}
+	// Read the roads ...
+	int[] firstRoad = getInts(buf, n + 1);
+	require((firstRoad[0] == 0) && (firstRoad[n] == m));
+	for (int i = 0; i < n; i++)
+	    require(firstRoad[i] <= firstRoad[i + 1]);
+	int[] roadTarget = getInts(buf, m);
+	for (int r = 0; r < m; r++)
+	    require((roadTarget[r] >= 0) && (roadTarget[r] < n));
+	double[] roadCost = getDoubles(buf, m);
+	for (int r = 0; r < m; r++)
+	    require(roadCost[r] >= 0.0);
+	int[] roadNameIndex = getInts(buf, m);
+	String[] roadName = new String[m];
+	for (int r = 0; r < m; r++) {
+	    require((roadNameIndex[r] >= 0) && (roadNameIndex[r] < s));
+	    roadName[r] = strings[roadNameIndex[r]];
+	}
+	return (new CompactMap(locations, firstRoad, roadTarget, roadCost,
+			       roadName));
+    }
+
+    // require -- Throw an IllegalArgumentException, reporting a corrupt map
+    // file, unless the given condition holds.
+    static void require(boolean condition) {
+	if (!condition)
+	    throw new IllegalArgumentException("corrupt map file");
+    }
+
+    // getInts -- Copy the given number of integers from the current
+    // position of the given buffer into a new array, advancing the buffer.
+    static int[] getInts(ByteBuffer buf, int count) {
+	int[] values = new int[count];
+	buf.asIntBuffer().get(values);
+	buf.position(buf.position() + 4 * count);
+	return (values);
+    }
+
+    // getDoubles -- Copy the given number of doubles from the current
+    // position of the given buffer into a new array, advancing the buffer.
+    static double[] getDoubles(ByteBuffer buf, int count) {
+	double[] values = new double[count];
+	buf.asDoubleBuffer().get(values);
+	buf.position(buf.position() + 8 * count);
+	return (values);
+    }
+
+    // intern -- Return the index of the given string in the string table
+    // being built, adding it to the table if it is not already there.
+    static int intern(String str, HashMap<String, Integer> stringIndex,
+		      List<byte[]> strings) {
+	Integer index = stringIndex.get(str);
+	if (index == null) {
+	    index = strings.size();
+	    stringIndex.put(str, index);
+	    strings.add(str.getBytes(StandardCharsets.UTF_8));
+	}
+	return (index);
+    }
+
+    // main -- Convert a map from a location text file and a road text file,
+    // named by the first two arguments, into a binary map file, named by
+    // the third argument.
+    public static void main(String[] args) {
+	if (args.length != 3) {
+	    System.err.println("Usage:  java MapFile LOCATIONS ROADS MAPFILE");
+	    return;
+	}
+	if (!(convert(args[0], args[1], args[2]))) {
+	    System.err.println("Error:  Unable to convert map.");
+	}
+    }
+
+}
+
@@ -0,0 +1,470 @@
+//
+// MapGenerator
+//
+// This class writes synthetic maps, of any size, as a location file and a
+// road file in the same format as the sample map files, so that the search
+// algorithms and map data structures can be tested and timed on maps with
+// thousands or millions of locations.  Locations are named "loc0", "loc1",
+// and so on, and every road is written in both directions, with each
+// direction having its own cost.  The cost of a road is the straight-line
+// distance between its locations, increased by a random fraction of up to
+// "costNoise" of that distance, so the straight-line distance to the
+// destination never overestimates the cost of reaching it.  Coordinates
+// and costs are rounded to four decimal places, with costs rounded up.
+// Four kinds of maps can be made:
+//
+//   grid       -- Locations are placed on a rectangular grid with a spacing
+//                 of one unit, each moved randomly by up to a quarter unit,
+//                 and each is joined to its neighbors to the north, south,
+//                 east, and west.
+//
+//   geometric  -- Locations are scattered uniformly at random over a square
+//                 with an area of one unit per location, and every pair of
+//                 locations closer together than a radius chosen to give
+//                 the requested average number of roads per location is
+//                 joined.  (This is a "random geometric graph".)
+//
+//   planar     -- Locations are scattered as for a geometric map, and two
+//                 locations are joined if no other location lies within the
+//                 circle that has the road between them as its diameter.
+//                 (This is a "Gabriel graph", which is a subgraph of the
+//                 Delaunay triangulation.)  No roads cross, and, like a
+//                 street network, locations have four neighbors on average,
+//                 with most having three, four, or five.  Only roads up to
+//                 "PLANAR_RADIUS" units long are considered, which, at this
+//                 density, leaves out essentially none.
+//
+//   scalefree  -- Locations are added one at a time, each joined to a given
+//                 number of the locations already present, chosen with
+//                 probability proportional to the number of roads that they
+//                 already have.  (This is the Barabasi-Albert "preferential
+//                 attachment" model.)  A few locations become hubs with very
+//                 many roads, as in airline or highway networks.  Each new
+//                 location is placed near the first location to which it is
+//                 joined, so hubs sit at the centers of clusters of nearby
+//                 locations, while the other roads may span the map.
+//
+// Coordinates are kept in primitive arrays, and roads are written as they
+// are generated, so very large maps can be written without making Location
+// and Road objects for them.  The same seed always produces the same map.
+// Every size given on the command line must be positive.
+//
+// Usage:  java MapGenerator grid <width> <height> <location file>
+//                          <road file> [<seed>]
+//         java MapGenerator geometric <locations> <average degree>
+//                          <location file> <road file> [<seed>]
+//         java MapGenerator planar <locations> <location file>
+//                          <road file> [<seed>]
+//         java MapGenerator scalefree <locations> <roads per location>
+//                          <location file> <road file> [<seed>]
+//
+// Created Sat Oct 17 21:44:50 PDT 2026
+// Modified Sat Oct 17 22:31:16 PDT 2026
+//   (Added planar and scale-free maps.)
+// Modified Sun Oct 18 08:09:22 PDT 2026
+//   (Rejected sizes that are not positive.)
+//
+
+
+import java.io.*;
+import java.util.*;
+
+
+public class MapGenerator {
+    static final double PLANAR_RADIUS = 4.0;
+    static final double CLUSTER_SPREAD = 1.0;
+    Random random;
+    double costNoise = 0.5;
+    double[] longitude;
+    double[] latitude;
+    int roadCount = 0;       // number of roads written, in each direction
+    // Locations sorted into square cells, for finding nearby locations ...
+    double side;
+    int cells;
+    int[] firstInCell;
+    int[] cellOf;
+    int[] members;
+    int[] nearby = new int[64];
+
+    // Constructor with the random number seed specified ...
+    public MapGenerator(long seed) {
+	this.random = new Random(seed);
+    }
+
+    // setCostNoise -- Set the largest fraction of its length by which the
+    // cost of a road may exceed its length.
+    public void setCostNoise(double costNoise) {
+	this.costNoise = costNoise;
+    }
+
+    // writeGrid -- Write a grid map of the given width and height to the
+    // files with the given pathnames.  Return false on error.
+    public boolean writeGrid(int width, int height,
+			     String locationFilename, String roadFilename) {
+	int n = width * height;
+	longitude = new double[n];
+	latitude = new double[n];
+	for (int i = 0; i < n; i++) {
+	    longitude[i] = round(i % width + 0.5 * (random.nextDouble() - 0.5));
+	    latitude[i] = round(i / width + 0.5 * (random.nextDouble() - 0.5));
+	}
+	if (!(writeLocations(locationFilename)))
+	    return (false);
+	try {
+	    PrintWriter out = open(roadFilename);
+	    roadCount = 0;
+	    for (int i = 0; i < n; i++) {
+		if ((i % width) + 1 < width)
+		    writeRoad(out, i, i + 1);
+		if (i + width < n)
+		    writeRoad(out, i, i + width);
+	    }
+	    out.close();
+	    return (!(out.checkError()));
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+    }
+
+    // writeGeometric -- Write a random geometric map with the given number
+    // of locations, and roughly the given average number of roads leading
+    // out of each location, to the files with the given pathnames.  Return
+    // false on error.
+    public boolean writeGeometric(int n, double degree,
+				  String locationFilename,
+				  String roadFilename) {
+	double radius = Math.sqrt(degree / Math.PI);
+	scatterLocations(n);
+	if (!(writeLocations(locationFilename)))
+	    return (false);
+	sortIntoCells(radius);
+	try {
+	    PrintWriter out = open(roadFilename);
+	    roadCount = 0;
+	    for (int i = 0; i < n; i++) {
+		int count = findNearby(i, radius);
+		for (int k = 0; k < count; k++) {
+		    if (nearby[k] > i)
+			writeRoad(out, i, nearby[k]);
+		}
+	    }
+	    out.close();
+	    return (!(out.checkError()));
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+    }
+
+    // writePlanar -- Write a planar map, with the given number of locations
+    // joined as a Gabriel graph, to the files with the given pathnames.
+    // Return false on error.
+    public boolean writePlanar(int n, String locationFilename,
+			       String roadFilename) {
+	scatterLocations(n);
+	if (!(writeLocations(locationFilename)))
+	    return (false);
+	sortIntoCells(PLANAR_RADIUS);
+	try {
+	    PrintWriter out = open(roadFilename);
+	    roadCount = 0;
+	    for (int i = 0; i < n; i++) {
+		// Any location within the circle on a road from this location
+		// is closer to this location than the other end of the road,
+		// so only the nearby locations need to be checked ...
+		int count = findNearby(i, PLANAR_RADIUS);
+		for (int a = 0; a < count; a++) {
+		    int j = nearby[a];
+		    if (j < i)
+			continue;
+		    double cx = 0.5 * (longitude[i] + longitude[j]);
+		    double cy = 0.5 * (latitude[i] + latitude[j]);
+		    double r = 0.5 * distance(i, j);
+		    boolean empty = true;
+		    for (int b = 0; (b < count) && empty; b++) {
+			int k = nearby[b];
+			double dx = longitude[k] - cx;
+			double dy = latitude[k] - cy;
+			if ((k != j) && (dx * dx + dy * dy < r * r))
+			    empty = false;
+		    }
+		    if (empty)
+			writeRoad(out, i, j);
+		}
+	    }
+	    out.close();
+	    return (!(out.checkError()));
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+    }
+
+    // writeScaleFree -- Write a scale-free map with the given number of
+    // locations, each joined by preferential attachment to the given
+    // number of earlier locations, to the files with the given pathnames.
+    // Return false on error.
+    public boolean writeScaleFree(int n, int links, String locationFilename,
+				  String roadFilename) {
+	links = Math.max(1, Math.min(links, n - 1));
+	double size = Math.sqrt(n);
+	longitude = new double[n];
+	latitude = new double[n];
+	// Every road adds both of its ends to this list, so choosing an entry
+	// at random chooses a location in proportion to its roads ...
+	int[] ends = new int[2 * links * n];
+	int endCount = 0;
+	int[] chosen = new int[links];
+	try {
+	    PrintWriter out = open(roadFilename);
+	    roadCount = 0;
+	    for (int i = 0; i < n; i++) {
+		int count = 0;
+		if (i <= links) {
+		    // The first few locations are all joined to each other ...
+		    for (int j = 0; j < i; j++)
+			chosen[count++] = j;
+		} else {
+		    while (count < links) {
+			int j = ends[random.nextInt(endCount)];
+			boolean repeated = false;
+			for (int k = 0; k < count; k++)
+			    repeated = repeated || (chosen[k] == j);
+			if (!repeated)
+			    chosen[count++] = j;
+		    }
+		}
+		if (count == 0) {
+		    longitude[i] = round(size * random.nextDouble());
+		    latitude[i] = round(size * random.nextDouble());
+		} else {
+		    longitude[i] = round(longitude[chosen[0]]
+					 + CLUSTER_SPREAD * random.nextGaussian());
+		    latitude[i] = round(latitude[chosen[0]]
+					+ CLUSTER_SPREAD * random.nextGaussian());
+		}
+		for (int k = 0; k < count; k++) {
+		    writeRoad(out, i, chosen[k]);
+		    ends[endCount++] = i;
+		    ends[endCount++] = chosen[k];
+		}
+	    }
+	    out.close();
+	    if (out.checkError())
+		return (false);
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+	return (writeLocations(locationFilename));
+    }
+
+    // scatterLocations -- Place the given number of locations uniformly at
+    // random over a square with an area of one unit per location.
+    void scatterLocations(int n) {
+	side = Math.sqrt(n);
+	longitude = new double[n];
+	latitude = new double[n];
+	for (int i = 0; i < n; i++) {
+	    longitude[i] = round(side * random.nextDouble());
+	    latitude[i] = round(side * random.nextDouble());
+	}
+    }
+
+    // sortIntoCells -- Sort the scattered locations into square cells at
+    // least as wide as the given radius, so that only locations in
+    // neighboring cells need to be compared when looking for locations
+    // within that radius of each other.
+    void sortIntoCells(double radius) {
+	int n = longitude.length;
+	cells = Math.max(1, (int) (side / radius));
+	firstInCell = new int[cells * cells + 1];
+	cellOf = new int[n];
+	for (int i = 0; i < n; i++) {
+	    cellOf[i] = cell(longitude[i], side, cells) * cells
+		+ cell(latitude[i], side, cells);
+	    firstInCell[cellOf[i] + 1]++;
+	}
+	for (int c = 0; c < cells * cells; c++)
+	    firstInCell[c + 1] += firstInCell[c];
+	members = new int[n];
+	int[] next = Arrays.copyOf(firstInCell, cells * cells);
+	for (int i = 0; i < n; i++)
+	    members[next[cellOf[i]]++] = i;
+    }
+
+    // findNearby -- Fill the "nearby" array with the other locations that
+    // are closer than the given radius, which must be no greater than the
+    // one given when the locations were sorted into cells, to the location
+    // with the given index.  Return the number of such locations.
+    int findNearby(int i, double radius) {
+	int count = 0;
+	int cx = cellOf[i] / cells;
+	int cy = cellOf[i] % cells;
+	for (int x = Math.max(0, cx - 1); x <= Math.min(cells - 1, cx + 1); x++) {
+	    for (int y = Math.max(0, cy - 1);
+		 y <= Math.min(cells - 1, cy + 1); y++) {
+		int c = x * cells + y;
+		for (int k = firstInCell[c]; k < firstInCell[c + 1]; k++) {
+		    int j = members[k];
+		    if ((j != i) && (distance(i, j) < radius)) {
+			if (count == nearby.length)
+			    nearby = Arrays.copyOf(nearby, 2 * count);
+			nearby[count++] = j;
+		    }
+		}
+	    }
+	}
+	return (count);
+    }
+
+    // writeLocations -- Write the locations, with the coordinates in the
+    // "longitude" and "latitude" arrays, to the file with the given
+    // pathname.  Return false on error.
+    boolean writeLocations(String filename) {
+	try {
+	    PrintWriter out = open(filename);
+	    StringBuilder line = new StringBuilder();
+	    for (int i = 0; i < longitude.length; i++) {
+		line.setLength(0);
+		line.append("loc").append(i).append(' ');
+		line.append(longitude[i]).append(' ').append(latitude[i]);
+		out.println(line);
+	    }
+	    out.close();
+	    return (!(out.checkError()));
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+    }
+
+    // writeRoad -- Write a road joining the locations with the given
+    // indices, in both directions, to the given stream.
+    void writeRoad(PrintWriter out, int i, int j) {
+	String name = "road" + (roadCount++);
+	double length = distance(i, j);
+	writeDirectedRoad(out, name, i, j, length);
+	writeDirectedRoad(out, name, j, i, length);
+    }
+
+    // writeDirectedRoad -- Write a road with the given name and length from
+    // the first given location to the second to the given stream, choosing
+    // its cost at random.
+    void writeDirectedRoad(PrintWriter out, String name, int from, int to,
+			   double length) {
+	double cost = length * (1.0 + costNoise * random.nextDouble());
+	StringBuilder line = new StringBuilder();
+	line.append(name).append(" loc").append(from).append(" loc").append(to);
+	line.append(' ').append(Math.ceil(cost * 1.0e4) / 1.0e4);
+	out.println(line);
+    }
+
+    // distance -- Return the straight-line distance between the locations
+    // with the given indices.
+    double distance(int i, int j) {
+	double dx = longitude[i] - longitude[j];
+	double dy = latitude[i] - latitude[j];
+	return (Math.sqrt(dx * dx + dy * dy));
+    }
+
+    // cell -- Return the index of the cell, along one axis, holding the
+    // given coordinate.
+    static int cell(double coordinate, double side, int cells) {
+	return (Math.min(cells - 1, (int) (coordinate / side * cells)));
+    }
+
+    // round -- Round the given coordinate to four decimal places.
+    static double round(double x) {
+	return (Math.round(x * 1.0e4) / 1.0e4);
+    }
+
+    // open -- Open the file with the given pathname for buffered writing.
+    static PrintWriter open(String filename) throws IOException {
+	return (new PrintWriter(new BufferedWriter(new FileWriter(filename),
+						   1 << 16)));
+    }
+
+    // usage -- Print a description of the command line arguments.
+    static void usage() {
+	System.err.println("Usage:  java MapGenerator grid <width> <height> <location file> <road file> [<seed>]");
+	System.err.println("        java MapGenerator geometric <locations> <average degree> <location file> <road file> [<seed>]");
+	System.err.println("        java MapGenerator planar <locations> <location file> <road file> [<seed>]");
+	System.err.println("        java MapGenerator scalefree <locations> <roads per location> <location file> <road file> [<seed>]");
+	System.err.println("All sizes must be positive.");
+    }
+
+    public static void main(String[] args) {
+	if (args.length < 1) {
+	    usage();
+	    return;
+	}
+	// The planar map takes one fewer size argument than the others ...
+	int files = args[0].equals("planar") ? 2 : 3;
+	if ((args.length != files + 2) && (args.length != files + 3)) {
+	    usage();
+	    return;
+	}
+	try {
+	    long seed
+		= (args.length > files + 2) ? Long.parseLong(args[files + 2]) : 1;
+	    String locationFilename = args[files];
+	    String roadFilename = args[files + 1];
+	    MapGenerator generator = new MapGenerator(seed);
+	    boolean written;
+	    if (args[0].equals("grid")) {
+		int width = Integer.parseInt(args[1]);
+		int height = Integer.parseInt(args[2]);
+		if ((width <= 0) || (height <= 0)) {
+		    usage();
+		    return;
+		}
+		written = generator.writeGrid(width, height,
+					      locationFilename, roadFilename);
+	    } else if (args[0].equals("geometric")) {
+		int n = Integer.parseInt(args[1]);
+		double degree = Double.parseDouble(args[2]);
+		if ((n <= 0) || !(degree > 0.0)) {
+		    usage();
+		    return;
+		}
+		written = generator.writeGeometric(n, degree,
+						   locationFilename,
+						   roadFilename);
+	    } else if (args[0].equals("planar")) {
+		int n = Integer.parseInt(args[1]);
+		if (n <= 0) {
+		    usage();
+		    return;
+		}
+		written = generator.writePlanar(n, locationFilename,
+						roadFilename);
+	    } else if (args[0].equals("scalefree")) {
+		int n = Integer.parseInt(args[1]);
+		int links = Integer.parseInt(args[2]);
+		if ((n <= 0) || (links <= 0)) {
+		    usage();
+		    return;
+		}
+		written = generator.writeScaleFree(n, links,
+						   locationFilename,
+						   roadFilename);
+	    } else {
+		usage();
+		return;
+	    }
+	    if (!written) {
+		System.err.println("Error:  Unable to write map.");
+		return;
+	    }
+	    System.out.printf("Wrote %d locations and %d roads.\n",
+			      generator.longitude.length,
+			      2 * generator.roadCount);
+	} catch (NumberFormatException e) {
+	    System.err.println("Error:  Invalid number.");
+	}
+    }
+
+}
+
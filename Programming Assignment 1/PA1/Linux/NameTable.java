@@ -0,0 +1,118 @@
+//
+// NameTable
+//
+// This class implements an open-addressing hash table whose keys are
+// sequences of bytes, held in a single pool, so that a name read into a
+// buffer can be looked up without first being made into a String.  Entries
+// are numbered in the order in which they are added, and the slots of the
+// table hold entry numbers, so the table may be grown without moving any
+// keys.  It is used by the MapTextReader and ParallelRoadReader classes to
+// find location names and to intern road names.
+//
+// Created Sun Oct 18 07:14:26 PDT 2026
+//
+
+
+import java.util.*;
+
+
+public class NameTable<V> {
+    byte[] pool = new byte[1 << 12];
+    int poolSize = 0;
+    int[] slots;          // hash slot -> entry number plus one, or zero
+    int[] keyStart;       // entry -> position of its key in the pool
+    int[] keyLength;      // entry -> length of its key
+    int[] keyHash;        // entry -> hash code of its key
+    Object[] values;      // entry -> value
+    int size = 0;
+
+    // Constructor with the expected number of entries specified ...
+    NameTable(int expected) {
+	int capacity = Integer.highestOneBit(Math.max(8, 2 * expected)) << 1;
+	this.slots = new int[capacity];
+	int entries = Math.max(8, expected);
+	this.keyStart = new int[entries];
+	this.keyLength = new int[entries];
+	this.keyHash = new int[entries];
+	this.values = new Object[entries];
+    }
+
+    // get -- Return the value for the key held in the given range of the
+    // given array, which has the given hash code, or null if there is none.
+    @SuppressWarnings("unchecked")
+    V get(byte[] bytes, int start, int end, int hash) {
+	int mask = slots.length - 1;
+	for (int s = hash & mask; slots[s] != 0; s = (s + 1) & mask) {
+	    int e = slots[s] - 1;
+	    if ((keyHash[e] == hash) && matches(e, bytes, start, end))
+		return ((V) values[e]);
+	}
+	return (null);
+    }
+
+    // put -- Add the given value for the key held in the given range of the
+    // given array, which has the given hash code.  The key must not be in
+    // the table already.
+    void put(byte[] bytes, int start, int end, int hash, V value) {
+	if (2 * (size + 1) > slots.length)
+	    rehash();
+	if (size == values.length) {
+	    keyStart = Arrays.copyOf(keyStart, 2 * size);
+	    keyLength = Arrays.copyOf(keyLength, 2 * size);
+	    keyHash = Arrays.copyOf(keyHash, 2 * size);
+	    values = Arrays.copyOf(values, 2 * size);
+	}
+	int length = end - start;
+	if (poolSize + length > pool.length)
+	    pool = Arrays.copyOf(pool, Math.max(2 * pool.length,
+						poolSize + length));
+	System.arraycopy(bytes, start, pool, poolSize, length);
+	keyStart[size] = poolSize;
+	keyLength[size] = length;
+	keyHash[size] = hash;
+	values[size] = value;
+	poolSize += length;
+	size++;
+	place(size - 1);
+    }
+
+    // matches -- Return true if the key of the given entry is the same as
+    // the bytes in the given range of the given array.
+    boolean matches(int e, byte[] bytes, int start, int end) {
+	if (keyLength[e] != end - start)
+	    return (false);
+	int p = keyStart[e];
+	for (int i = start; i < end; i++) {
+	    if (pool[p++] != bytes[i])
+		return (false);
+	}
+	return (true);
+    }
+
+    // place -- Put the given entry into the first free slot for its hash.
+    void place(int e) {
+	int mask = slots.length - 1;
+	int s = keyHash[e] & mask;
+	while (slots[s] != 0)
+	    s = (s + 1) & mask;
+	slots[s] = e + 1;
+    }
+
+    // rehash -- Double the number of slots, placing every entry again.
+    void rehash() {
+	slots = new int[2 * slots.length];
+	for (int e = 0; e < size; e++)
+	    place(e);
+    }
+
+    // hash -- Return the hash code of the bytes in the given range of the
+    // given array.
+    static int hash(byte[] bytes, int start, int end) {
+	int h = 0x811c9dc5;
+	for (int i = start; i < end; i++)
+	    h = (h ^ bytes[i]) * 0x01000193;
+	return (h ^ (h >>> 16));
+    }
+
+}
+
@@ -0,0 +1,281 @@
+//
+// ParallelRoadReader
+//
+// This class reads a road file, in the text format described in the Map
+// class, using the threads of a ForkJoinPool.  The file is divided into
+// chunks of about the same size, each of which is moved forward so that it
+// begins at the start of a line, and each chunk is parsed by a separate
+// task, with its own MapTextReader, into its own buffer of Road objects.
+// The tasks read a single channel to the file, using positional reads, so
+// that no task disturbs the position of another.  Locations are found by
+// name in a single table, made before any chunk is read, and road names are
+// interned in a map shared by all of the tasks, so that they are shared
+// across chunks, just as they would be if the file were read by one thread.
+// Once every chunk has been parsed, the roads are added to the map in a
+// single pass, in the order in which they appear in the file, on the
+// calling thread, so the map, and any MapListener, sees exactly what it
+// would see if the file were read by one thread.  In particular, reading
+// stops at the first line that is not a complete road, and it fails at the
+// first road leading from or to a location that is not known, after adding
+// the roads before it.  Road files too small to be worth dividing, and road
+// files read with a pool of only one thread, are read by a single
+// MapTextReader.
+//
+// Created Sun Oct 18 01:27:33 PDT 2026
+//
+
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+
+// ChunkChannel is a channel that reads a range of the bytes of a file,
+// using positional reads, so that many of them can read the same file
+// channel at once.  Closing it does not close the file channel ...
+class ChunkChannel implements ReadableByteChannel {
+    FileChannel file;
+    long position;
+    long end;
+
+    // Constructor with the file channel and the range of bytes to be read
+    // from it specified ...
+    ChunkChannel(FileChannel file, long start, long end) {
+	this.file = file;
+	this.position = start;
+	this.end = end;
+    }
+
+    // read -- Read bytes from the chunk into the given buffer.  Return the
+    // number of bytes read, or -1 at the end of the chunk.
+    public int read(ByteBuffer target) throws IOException {
+	if (position >= end)
+	    return (-1);
+	int oldLimit = target.limit();
+	if (target.remaining() > end - position)
+	    target.limit(target.position() + (int) (end - position));
+	int count = file.read(target, position);
+	target.limit(oldLimit);
+	if (count > 0)
+	    position += count;
+	return (count);
+    }
+
+    // isOpen -- Return true if the file channel is open.
+    public boolean isOpen() {
+	return (file.isOpen());
+    }
+
+    // close -- Do nothing, leaving the file channel to its owner.
+    public void close() {
+    }
+
+}
+
+
+// ChunkParse is a ForkJoin task that parses a range of the chunks of a
+// road file, splitting the range in half until it holds a single chunk ...
+class ChunkParse extends RecursiveAction {
+    static final long serialVersionUID = 1;  // Version 1
+    ParallelRoadReader reader;
+    int first;
+    int last;
+
+    // Constructor with the reader and the range of chunks specified ...
+    ChunkParse(ParallelRoadReader reader, int first, int last) {
+	this.reader = reader;
+	this.first = first;
+	this.last = last;
+    }
+
+    // compute -- Parse the chunks, directly or by splitting the range.
+    protected void compute() {
+	if (last - first <= 1) {
+	    if (last > first)
+		reader.parse(first);
+	} else {
+	    int middle = (first + last) / 2;
+	    invokeAll(new ChunkParse(reader, first, middle),
+		      new ChunkParse(reader, middle, last));
+	}
+    }
+
+}
+
+
+public class ParallelRoadReader {
+    static final long MIN_CHUNK_SIZE = 1L << 22;
+    static final int CHUNKS_PER_THREAD = 4;
+    // How the parsing of a chunk ended ...
+    static final int COMPLETE = 0;   // at the end of the chunk
+    static final int STOPPED = 1;    // at a line that is not a complete road
+    static final int UNKNOWN = 2;    // at a road with an unknown location
+    static final int FAILED = 3;     // at an input error
+    Map map;
+    FileChannel file;
+    NameTable<Location> locationNames;
+    ConcurrentMap<String, String> roadNames
+	= new ConcurrentHashMap<String, String>();
+    long[] chunkStart;   // chunk -> position of its first byte, then the end
+    Road[][] roads;      // chunk -> roads parsed from it
+    int[] roadCount;     // chunk -> number of roads parsed from it
+    int[] ending;        // chunk -> how the parsing of it ended
+
+    // Constructor with the map, the file channel, and the positions at
+    // which the chunks begin specified ...
+    ParallelRoadReader(Map map, FileChannel file, long[] chunkStart) {
+	int chunks = chunkStart.length - 1;
+	this.map = map;
+	this.file = file;
+	this.chunkStart = chunkStart;
+	this.locationNames = MapTextReader.locationTable(map);
+	this.roads = new Road[chunks][];
+	this.roadCount = new int[chunks];
+	this.ending = new int[chunks];
+    }
+
+    // readRoads -- Read the road file with the given pathname, recording
+    // each road in the given map, which must already hold the locations
+    // that the roads join.  The file is parsed by the threads of the given
+    // pool, if it is large enough.  Return false on error, or if a road
+    // leads from or to a location that is not known.
+    public static boolean readRoads(Map map, String filename,
+				    ForkJoinPool pool) {
+	File file = new File(filename);
+	if (!(file.exists() && file.canRead()))
+	    // The specified road file could not be read ...
+	    return (false);
+	int threads = pool.getParallelism();
+	long chunks = Math.min(file.length() / MIN_CHUNK_SIZE,
+			       (long) CHUNKS_PER_THREAD * threads);
+	if ((chunks < 2) || (threads < 2))
+	    return (MapTextReader.readRoads(map, filename));
+	try {
+	    FileInputStream stream = new FileInputStream(file);
+	    try {
+		FileChannel channel = stream.getChannel();
+		ParallelRoadReader reader
+		    = new ParallelRoadReader(map, channel,
+					     divide(channel, (int) chunks));
+		pool.invoke(new ChunkParse(reader, 0, reader.roads.length));
+		return (reader.merge());
+	    } finally {
+		stream.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+    }
+
+    // divide -- Return the positions at which the given number of chunks of
+    // the file with the given channel begin, each at the start of a line,
+    // followed by the size of the file.  Fewer chunks are returned if some
+    // of them would be empty.
+    static long[] divide(FileChannel channel, int chunks) throws IOException {
+	long size = channel.size();
+	long[] start = new long[chunks + 1];
+	int count = 1;
+	ByteBuffer window = ByteBuffer.allocate(1 << 12);
+	for (int c = 1; c < chunks; c++) {
+	    long p = lineStart(channel, size * c / chunks, size, window);
+	    if ((p > start[count - 1]) && (p < size))
+		start[count++] = p;
+	}
+	start[count++] = size;
+	return (Arrays.copyOf(start, count));
+    }
+
+    // lineStart -- Return the position of the start of the first line that
+    // begins after the given position in the file with the given channel
+    // and size, using the given buffer, or the size if there is none.
+    static long lineStart(FileChannel channel, long p, long size,
+			  ByteBuffer window) throws IOException {
+	boolean afterReturn = false;
+	while (p < size) {
+	    window.clear();
+	    int count = channel.read(window, p);
+	    if (count <= 0)
+		break;
+	    for (int i = 0; i < count; i++) {
+		byte b = window.get(i);
+		if (afterReturn)
+		    // A carriage return ends a line, along with any line feed
+		    // immediately after it ...
+		    return ((b == '\n') ? p + i + 1 : p + i);
+		if (b == '\n')
+		    return (p + i + 1);
+		afterReturn = (b == '\r');
+	    }
+	    p += count;
+	}
+	return (size);
+    }
+
+    // parse -- Parse the roads in the chunk with the given number into its
+    // buffer, noting how the parsing ended.
+    void parse(int chunk) {
+	MapTextReader in
+	    = new MapTextReader(new ChunkChannel(file, chunkStart[chunk],
+						 chunkStart[chunk + 1]));
+	in.sharedNames = roadNames;
+	NameTable<String> names = new NameTable<String>(1024);
+	Road[] buffer = new Road[1024];
+	int count = 0;
+	try {
+	    while (in.nextLine()) {
+		Road r = in.parseRoad(map, locationNames, names);
+		if (r == null) {
+		    ending[chunk] = STOPPED;
+		    break;
+		}
+		if (count == buffer.length)
+		    buffer = Arrays.copyOf(buffer, 2 * count);
+		buffer[count++] = r;
+		if ((r.fromLocation == null) || (r.toLocation == null)) {
+		    // This road is reported when the chunks are merged ...
+		    ending[chunk] = UNKNOWN;
+		    break;
+		}
+	    }
+	} catch (IOException e) {
+	    ending[chunk] = FAILED;
+	}
+	roads[chunk] = buffer;
+	roadCount[chunk] = count;
+    }
+
+    // merge -- Add the roads parsed from the chunks to the map, in order,
+    // stopping wherever the parsing of a chunk stopped.  Return false on
+    // error, or if a road leads from or to a location that is not known.
+    boolean merge() {
+	for (int c = 0; c < roads.length; c++) {
+	    for (int i = 0; i < roadCount[c]; i++) {
+		Road r = roads[c][i];
+		if (r.fromLocation == null) {
+		    System.err.printf("The location, %s, is not known.\n",
+				      r.fromLocationName);
+		    return (false);
+		}
+		if (r.toLocation == null) {
+		    System.err.printf("The location, %s, is not known.\n",
+				      r.toLocationName);
+		    return (false);
+		}
+		// Record the road in the appropriate location ...
+		map.addRoad(r);
+	    }
+	    // The buffer is no longer needed ...
+	    roads[c] = null;
+	    if (ending[c] == STOPPED)
+		return (true);
+	    if (ending[c] == FAILED)
+		return (false);
+	}
+	return (true);
+    }
+
+}
+
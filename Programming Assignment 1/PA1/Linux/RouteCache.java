@@ -0,0 +1,300 @@
+//
+// RouteCache
+//
+// This class implements a bounded cache of search results, keyed by the
+// initial location, the destination location, and the name of the search
+// algorithm, so that repeated queries need not be searched again.  Each
+// result is stored compactly, as an array of location ids along the path,
+// together with the path cost, and it is turned back into a Waypoint chain
+// only when it is used.  (A query with no solution is cached, too, with no
+// path.)  When the cache is full, an entry must be evicted to make room for
+// a new one, and two policies are provided:
+//
+//   LRU       -- The least recently used entry is evicted.
+//
+//   TinyLFU   -- New entries go into a small LRU "window", holding about 1%
+//                of the entries.  An entry pushed out of the window is only
+//                admitted to the main LRU area if it has been requested
+//                more often than the entry that it would replace there, so
+//                a burst of queries that are never repeated cannot flush the
+//                frequently used entries from the cache.  Request counts
+//                are estimated, in a small fixed amount of memory, by a
+//                count-min sketch whose counts are halved periodically, so
+//                that old popularity fades.
+//
+// The cache registers itself as a MapListener, and every entry is discarded
+// whenever the map changes.  Since a search may be underway while the map
+// is changing, results are stored along with the map version number read
+// before the search began, and results for old versions are not kept.  All
+// methods may be called by many threads at once.  Counts of hits, misses,
+// evictions, rejected admissions, and invalidations are kept.
+//
+// Created Sat Oct 17 20:12:37 PDT 2026
+// Modified Sun Oct 18 07:21:48 PDT 2026
+//   (Moved the CachedRoute class into its own file.)
+//
+
+
+import java.util.*;
+
+
+// FrequencySketch estimates how often each key has been requested, using a
+// count-min sketch with four rows of counters, halving every counter after
+// a number of requests proportional to the size of the sketch ...
+class FrequencySketch {
+    static final int ROWS = 4;
+    static final int[] SEEDS = { 0x9e3779b9, 0x85ebca6b, 0xc2b2ae35,
+				 0x27d4eb2f };
+    int[] counts;
+    int mask;
+    int requestCount = 0;
+    int resetPeriod;
+
+    // Constructor with the number of keys to be distinguished specified ...
+    FrequencySketch(int capacity) {
+	int width = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+	this.counts = new int[ROWS * width];
+	this.mask = width - 1;
+	this.resetPeriod = 10 * width;
+    }
+
+    // increment -- Count a request for the key with the given hash code.
+    void increment(int hash) {
+	for (int i = 0; i < ROWS; i++)
+	    counts[i * (mask + 1) + index(hash, i)]++;
+	if (++requestCount >= resetPeriod) {
+	    for (int j = 0; j < counts.length; j++)
+		counts[j] >>>= 1;
+	    requestCount /= 2;
+	}
+    }
+
+    // frequency -- Return the estimated number of requests for the key
+    // with the given hash code.
+    int frequency(int hash) {
+	int estimate = Integer.MAX_VALUE;
+	for (int i = 0; i < ROWS; i++)
+	    estimate = Math.min(estimate,
+				counts[i * (mask + 1) + index(hash, i)]);
+	return (estimate);
+    }
+
+    // index -- Return the counter for the given hash code in the given row.
+    int index(int hash, int row) {
+	int h = hash * SEEDS[row];
+	return ((h ^ (h >>> 16)) & mask);
+    }
+
+}
+
+
+public class RouteCache implements MapListener {
+    Map graph;
+    int capacity;
+    boolean tinyLfu;
+    LinkedHashMap<String, CachedRoute> window;   // null for LRU
+    LinkedHashMap<String, CachedRoute> main;
+    int windowCapacity = 0;
+    int mainCapacity;
+    FrequencySketch sketch;                      // null for LRU
+    long hitCount = 0;
+    long missCount = 0;
+    long evictionCount = 0;
+    long rejectionCount = 0;
+    long invalidationCount = 0;
+
+    // Constructor with the map and the largest number of entries specified.
+    // The least recently used entry is evicted when the cache is full.
+    public RouteCache(Map graph, int capacity) {
+	this(graph, capacity, false);
+    }
+
+    // Constructor with the map, the largest number of entries, and whether
+    // or not TinyLFU admission should be used specified ...
+    public RouteCache(Map graph, int capacity, boolean tinyLfu) {
+	this.graph = graph;
+	this.capacity = Math.max(1, capacity);
+	this.tinyLfu = tinyLfu && (this.capacity > 1);
+	this.main = new LinkedHashMap<String, CachedRoute>(16, 0.75f, true);
+	if (this.tinyLfu) {
+	    this.windowCapacity = Math.max(1, this.capacity / 100);
+	    this.window
+		= new LinkedHashMap<String, CachedRoute>(16, 0.75f, true);
+	    this.sketch = new FrequencySketch(this.capacity);
+	}
+	this.mainCapacity = this.capacity - this.windowCapacity;
+	graph.addListener(this);
+    }
+
+    // get -- Return the cached result for the given query, or null if it is
+    // not in the cache.
+    public synchronized CachedRoute get(String initialLoc,
+					String destinationLoc,
+					String algorithm) {
+	String key = key(initialLoc, destinationLoc, algorithm);
+	if (sketch != null)
+	    sketch.increment(key.hashCode());
+	CachedRoute route = main.get(key);
+	if ((route == null) && (window != null))
+	    route = window.get(key);
+	if ((route == null) || (route.version != graph.version())) {
+	    missCount++;
+	    return (null);
+	}
+	hitCount++;
+	return (route);
+    }
+
+    // getWaypoint -- Return the Waypoint at the end of the cached path for
+    // the given query.  Return null if the query is not in the cache, or if
+    // the cached result is that there is no path; the "get" method tells
+    // these cases apart.
+    public Waypoint getWaypoint(String initialLoc, String destinationLoc,
+				String algorithm) {
+	CachedRoute route = get(initialLoc, destinationLoc, algorithm);
+	if (route == null)
+	    return (null);
+	return (route.toWaypoint(graph.compact()));
+    }
+
+    // put -- Cache the given solution to the given query, which may be null
+    // if there is no solution.  The given version number of the map must
+    // have been read before the search for the solution began, and the
+    // solution is not cached if the map has changed since then.
+    public synchronized void put(String initialLoc, String destinationLoc,
+				 String algorithm, Waypoint solution,
+				 long version) {
+	if (version != graph.version())
+	    return;
+	String key = key(initialLoc, destinationLoc, algorithm);
+	CachedRoute route = new CachedRoute(solution, version);
+	if (main.containsKey(key) || (window == null)) {
+	    main.put(key, route);
+	    if (main.size() > mainCapacity)
+		evict(main);
+	    return;
+	}
+	window.put(key, route);
+	if (window.size() <= windowCapacity)
+	    return;
+	// Move the oldest entry in the window to the main area, if it is
+	// requested more often than the entry that it would replace ...
+	String candidate = window.keySet().iterator().next();
+	CachedRoute candidateRoute = window.remove(candidate);
+	if (main.size() < mainCapacity) {
+	    main.put(candidate, candidateRoute);
+	    return;
+	}
+	String victim = main.keySet().iterator().next();
+	if (sketch.frequency(candidate.hashCode())
+	    > sketch.frequency(victim.hashCode())) {
+	    evict(main);
+	    main.put(candidate, candidateRoute);
+	} else {
+	    rejectionCount++;
+	}
+    }
+
+    // size -- Return the number of entries in the cache.
+    public synchronized int size() {
+	return (main.size() + ((window == null) ? 0 : window.size()));
+    }
+
+    // clear -- Discard every entry in the cache.
+    public synchronized void clear() {
+	main.clear();
+	if (window != null)
+	    window.clear();
+    }
+
+    // close -- Stop listening for changes to the map.
+    public void close() {
+	graph.removeListener(this);
+    }
+
+    // hitCount -- Return the number of requests answered from the cache.
+    public synchronized long hitCount() {
+	return (hitCount);
+    }
+
+    // missCount -- Return the number of requests not in the cache.
+    public synchronized long missCount() {
+	return (missCount);
+    }
+
+    // evictionCount -- Return the number of entries evicted to make room.
+    public synchronized long evictionCount() {
+	return (evictionCount);
+    }
+
+    // rejectionCount -- Return the number of entries refused admission to
+    // the main area of the cache.
+    public synchronized long rejectionCount() {
+	return (rejectionCount);
+    }
+
+    // invalidationCount -- Return the number of times that the cache has
+    // been emptied because the map changed.
+    public synchronized long invalidationCount() {
+	return (invalidationCount);
+    }
+
+    // hitRate -- Return the fraction of requests answered from the cache.
+    public synchronized double hitRate() {
+	long requests = hitCount + missCount;
+	return ((requests == 0) ? 0.0 : ((double) hitCount / requests));
+    }
+
+    // statistics -- Return a one-line summary of the cache statistics.
+    public synchronized String statistics() {
+	return (String.format("%d hits, %d misses (%.1f%% hit rate), %d evictions, %d rejections, %d invalidations",
+			      hitCount, missCount, 100.0 * hitRate(),
+			      evictionCount, rejectionCount,
+			      invalidationCount));
+    }
+
+    // locationAdded -- Discard every entry, since the map has changed.
+    public void locationAdded(Location loc) {
+	invalidate();
+    }
+
+    // roadAdded -- Discard every entry, since the map has changed.
+    public void roadAdded(Road road) {
+	invalidate();
+    }
+
+    // roadRemoved -- Discard every entry, since the map has changed.
+    public void roadRemoved(Road road) {
+	invalidate();
+    }
+
+    // roadCostChanged -- Discard every entry, since the map has changed.
+    public void roadCostChanged(Road road, double oldCost) {
+	invalidate();
+    }
+
+    // invalidate -- Discard every entry, counting the invalidation if any
+    // entries were discarded.
+    synchronized void invalidate() {
+	if (size() > 0) {
+	    clear();
+	    invalidationCount++;
+	}
+    }
+
+    // evict -- Remove the least recently used entry from the given area.
+    void evict(LinkedHashMap<String, CachedRoute> area) {
+	Iterator<String> oldest = area.keySet().iterator();
+	oldest.next();
+	oldest.remove();
+	evictionCount++;
+    }
+
+    // key -- Return the cache key for the given query.
+    static String key(String initialLoc, String destinationLoc,
+		      String algorithm) {
+	return (initialLoc + "\n" + destinationLoc + "\n" + algorithm);
+    }
+
+}
+
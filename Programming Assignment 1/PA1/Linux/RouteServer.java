@@ -0,0 +1,465 @@
+//
+// RouteServer
+//
+// This class provides a "main" method that acts as a batch driver program
+// for answering many shortest-path queries on a single map.  A Map object
+// is used to read in and record a map from a location file and a road file,
+// and queries are then read from a query file (or from the standard input
+// stream), one per line, each giving the name of an initial location, the
+// name of a destination location, and the name of a search algorithm:
+//
+//     ucs            -- uniform-cost search
+//     greedy         -- greedy search, using GoodHeuristic
+//     astar          -- A* search, using GoodHeuristic
+//     bidirectional  -- bidirectional uniform-cost search
+//     hierarchy      -- contraction hierarchy query
+//     idastar        -- IDA* search, using GoodHeuristic, a transposition
+//                       table, and bounds growing by at least 10%, giving
+//                       up after 2,000,000 node expansions
+//     wastar         -- weighted A* search, using GoodHeuristic, with a
+//                       weight of 1.5
+//     arastar        -- anytime repairing A* search, using GoodHeuristic,
+//                       improving its solution for up to 50 milliseconds
+//
+// Either location may instead be given by its coordinates, written as
+// "@<longitude>,<latitude>", in which case the location on the map nearest
+// to that point, found using a SpatialIndex, is used in its place, and it is
+// reported by name.  Repeated state checking is always done.  The queries
+// are answered concurrently by a fixed pool of threads, all sharing an
+// immutable snapshot of the map; every query gets its own search object,
+// heuristic function object, and search tree, so no search state is shared
+// between threads.  (The contraction hierarchy is built the first time that
+// it is needed, with each thread then keeping its own query engine for it.)
+// Only a bounded number of queries are waiting to be run at any time, so
+// arbitrarily long query streams can be processed.  Results are written to
+// the standard output stream as the queries finish, which is not necessarily
+// the order in which they were given, one per line, with tab-separated
+// fields:  the query number, the initial location, the destination location,
+// the algorithm, the path cost (or "NONE"), the number of node expansions,
+// the latency in milliseconds, and the names of the locations along the
+// path.  Results are kept in a RouteCache, using TinyLFU admission, so a
+// repeated query is answered without searching, and it is reported with no
+// node expansions.  (A search that gives up at a limit without finding a path
+// has not shown that there is none, so its result is not kept.)  A summary,
+// including the cache statistics and histograms of the search statistics, is
+// sent to the standard error stream at the end.  If a statistics file is
+// named, the statistics of every search (but not of queries answered from
+// the cache) are written to it as the searches finish, as JSON if its name
+// ends in ".json" and as comma-separated values otherwise, so that only the
+// histograms are kept in memory.  A query naming a location that is not on
+// the map is reported and skipped, and a query whose search fails is
+// reported with a path cost of "ERROR" and the reason for the failure in
+// place of the path, without stopping the other queries.
+//
+// Usage:  java RouteServer <location file> <road file> [<query file>
+//                          [<thread count> [<statistics file>]]]
+//
+// Created Sat Oct 17 18:10:44 PDT 2026
+// Modified Sat Oct 17 18:47:03 PDT 2026
+//   (Searched an immutable snapshot of the map.)
+// Modified Sat Oct 17 20:12:37 PDT 2026
+//   (Cached the results of queries.)
+// Modified Sat Oct 17 20:58:05 PDT 2026
+//   (Collected search statistics.)
+// Modified Sat Oct 17 23:14:52 PDT 2026
+//   (Added IDA* search.)
+// Modified Sat Oct 17 23:58:41 PDT 2026
+//   (Allowed locations to be given by coordinates.)
+// Modified Sun Oct 18 03:02:19 PDT 2026
+//   (Added weighted A* and anytime repairing A* search.)
+// Modified Sun Oct 18 05:37:18 PDT 2026
+//   (Streamed search statistics to the statistics file.)
+// Modified Sun Oct 18 06:44:03 PDT 2026
+//   (Limited the node expansions of IDA* search.)
+// Modified Sun Oct 18 07:52:14 PDT 2026
+//   (Reported failed queries without stopping the batch.)
+// Modified Sun Oct 18 09:36:12 PDT 2026
+//   (Cached no failure of a search that reached a limit.)
+// Modified Sun Oct 18 10:36:50 PDT 2026
+//   (Checked the thread count before loading the map.)
+//
+
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+
+// RouteQuery is a single query to be answered by a RouteServer, along with
+// its result, once it has been answered ...
+class RouteQuery implements Callable<RouteQuery> {
+    RouteServer server;
+    int number;
+    String initialLoc;
+    String destinationLoc;
+    String algorithm;
+    Waypoint solution = null;
+    int expansionCount = 0;
+    boolean limitReached = false;   // true if the search gave up at a limit
+    SearchStatistics statistics = null;   // null if answered from cache
+    long latency = 0;          // in nanoseconds
+    Throwable failure = null;  // null unless the search failed
+
+    // Constructor with the server, the query number, and the query itself
+    // specified ...
+    RouteQuery(RouteServer server, int number, String initialLoc,
+	       String destinationLoc, String algorithm) {
+	this.server = server;
+	this.number = number;
+	this.initialLoc = initialLoc;
+	this.destinationLoc = destinationLoc;
+	this.algorithm = algorithm;
+    }
+
+    // call -- Answer this query, recording the result and the time taken.
+    public RouteQuery call() {
+	long startTime = System.nanoTime();
+	try {
+	    server.answer(this);
+	} finally {
+	    latency = System.nanoTime() - startTime;
+	}
+	return (this);
+    }
+
+    // report -- Write the result of this query to the given stream, as a
+    // single line of tab-separated fields.
+    void report(PrintStream out) {
+	StringBuilder line = new StringBuilder();
+	line.append(number).append('\t');
+	line.append(initialLoc).append('\t');
+	line.append(destinationLoc).append('\t');
+	line.append(algorithm).append('\t');
+	if (failure != null)
+	    line.append("ERROR");
+	else if (solution == null)
+	    line.append("NONE");
+	else
+	    line.append(solution.partialPathCost);
+	line.append('\t').append(expansionCount);
+	line.append('\t').append(String.format("%.3f", latency / 1.0e6));
+	line.append('\t');
+	if (failure != null) {
+	    line.append(failure);
+	} else if (solution != null) {
+	    String[] names = new String[solution.depth + 1];
+	    for (Waypoint wp = solution; wp != null; wp = wp.previous)
+		names[wp.depth] = wp.loc.name;
+	    line.append(String.join(" ", names));
+	}
+	out.println(line);
+    }
+
+}
+
+
+public class RouteServer {
+    static final int LIMIT = 1000;    // depth limit, to avoid infinite loops
+    static final int CACHE_CAPACITY = 10000;
+    static final int TABLE_SIZE = 1 << 16;   // IDA* transposition table
+    static final double BOUND_GROWTH = 0.1;  // IDA* bound growth fraction
+    static final int EXPANSION_LIMIT = 2000000;   // IDA* node expansions
+    static final double WEIGHT = 1.5;        // weighted A* heuristic weight
+    static final double TIME_BUDGET = 50.0;  // ARA* milliseconds
+    static final List<String> ALGORITHMS
+	= Arrays.asList("ucs", "greedy", "astar", "bidirectional",
+			"hierarchy", "idastar", "wastar", "arastar");
+    Map graph;
+    RouteCache cache;
+    StatisticsCollector collector = new StatisticsCollector();
+    ContractionHierarchy hierarchy = null;
+    ThreadLocal<HierarchySearch> hierarchySearch
+	= new ThreadLocal<HierarchySearch>();
+
+    // Constructor with the map specified.  Queries are answered using a
+    // snapshot of the map, so later changes to the map are not seen.
+    public RouteServer(Map graph) {
+	this(graph, CACHE_CAPACITY);
+    }
+
+    // Constructor with the map and the number of results to cache specified
+    // ...
+    public RouteServer(Map graph, int cacheCapacity) {
+	this.graph = graph.snapshot();
+	this.cache = new RouteCache(this.graph, cacheCapacity, true);
+    }
+
+    // answer -- Answer the given query, recording the solution and the
+    // number of node expansions in it.  This may be called by many threads
+    // at once.
+    void answer(RouteQuery query) {
+	String from = query.initialLoc;
+	String to = query.destinationLoc;
+	CachedRoute cached = cache.get(from, to, query.algorithm);
+	if (cached != null) {
+	    query.solution = cached.toWaypoint(graph.compact());
+	    query.expansionCount = 0;
+	    return;
+	}
+	long version = graph.version();
+	search(query);
+	// A search that gave up at a limit has not shown that there is no
+	// path, so its failure is not cached ...
+	if ((query.solution != null) || !(query.limitReached))
+	    cache.put(from, to, query.algorithm, query.solution, version);
+	collector.add(query.statistics);
+    }
+
+    // search -- Answer the given query by searching the map.
+    void search(RouteQuery query) {
+	String from = query.initialLoc;
+	String to = query.destinationLoc;
+	if (query.algorithm.equals("ucs")) {
+	    BestFirstSearch s
+		= new BestFirstSearch(graph, from, to, LIMIT, SortBy.g);
+	    query.solution = s.search(true);
+	    query.expansionCount = s.expansionCount;
+	    query.limitReached = s.limitReached;
+	    query.statistics = s.statistics;
+	} else if (query.algorithm.equals("greedy")) {
+	    BestFirstSearch s
+		= new BestFirstSearch(graph, from, to, LIMIT, SortBy.h);
+	    s.setHeuristic(new GoodHeuristic());
+	    query.solution = s.search(true);
+	    query.expansionCount = s.expansionCount;
+	    query.limitReached = s.limitReached;
+	    query.statistics = s.statistics;
+	} else if (query.algorithm.equals("astar")) {
+	    BestFirstSearch s
+		= new BestFirstSearch(graph, from, to, LIMIT, SortBy.f);
+	    s.setHeuristic(new GoodHeuristic());
+	    query.solution = s.search(true);
+	    query.expansionCount = s.expansionCount;
+	    query.limitReached = s.limitReached;
+	    query.statistics = s.statistics;
+	} else if (query.algorithm.equals("bidirectional")) {
+	    BidirectionalSearch s
+		= new BidirectionalSearch(graph, from, to, LIMIT);
+	    query.solution = s.search();
+	    query.expansionCount = s.expansionCount;
+	    query.limitReached = s.limitReached;
+	    query.statistics = s.statistics;
+	} else if (query.algorithm.equals("hierarchy")) {
+	    HierarchySearch s = hierarchySearch.get();
+	    if (s == null) {
+		s = new HierarchySearch(hierarchy());
+		hierarchySearch.set(s);
+	    }
+	    query.solution = s.search(from, to);
+	    query.expansionCount = s.expansionCount;
+	    query.statistics = s.statistics;
+	} else if (query.algorithm.equals("idastar")) {
+	    IDAStarSearch s = new IDAStarSearch(graph, from, to, LIMIT);
+	    s.setHeuristic(new GoodHeuristic());
+	    s.setTranspositionTable(TABLE_SIZE);
+	    s.setBoundGrowth(BOUND_GROWTH);
+	    s.setExpansionLimit(EXPANSION_LIMIT);
+	    query.solution = s.search();
+	    query.expansionCount = s.expansionCount;
+	    query.limitReached = s.limitReached;
+	    query.statistics = s.statistics;
+	} else if (query.algorithm.equals("wastar")) {
+	    WeightedAStarSearch s
+		= new WeightedAStarSearch(graph, from, to, LIMIT, WEIGHT);
+	    query.solution = s.search(true);
+	    query.expansionCount = s.expansionCount;
+	    query.limitReached = s.limitReached;
+	    query.statistics = s.statistics;
+	} else if (query.algorithm.equals("arastar")) {
+	    ARAStarSearch s = new ARAStarSearch(graph, from, to, LIMIT);
+	    s.setTimeBudget(TIME_BUDGET);
+	    query.solution = s.search();
+	    query.expansionCount = s.expansionCount;
+	    query.limitReached = s.limitReached;
+	    query.statistics = s.statistics;
+	}
+    }
+
+    // hierarchy -- Return the contraction hierarchy for the map, building
+    // it the first time that it is requested.
+    synchronized ContractionHierarchy hierarchy() {
+	if (hierarchy == null) {
+	    ContractionHierarchy ch = new ContractionHierarchy(graph);
+	    ch.build();
+	    hierarchy = ch;
+	}
+	return (hierarchy);
+    }
+
+    // parse -- Return a RouteQuery for the given line of a query file, with
+    // the given query number, or null if the line is not a valid query.
+    RouteQuery parse(String line, int number) {
+	String[] fields = line.trim().split("\\s+");
+	if (fields.length != 3) {
+	    System.err.printf("Query %d is malformed:  %s\n", number, line);
+	    return (null);
+	}
+	if (!(ALGORITHMS.contains(fields[2]))) {
+	    System.err.printf("The algorithm, %s, is not known.\n",
+			      fields[2]);
+	    return (null);
+	}
+	String from = snap(fields[0], number);
+	String to = snap(fields[1], number);
+	if ((from == null) || (to == null))
+	    return (null);
+	if (graph.findLocation(from) == null) {
+	    System.err.printf("The location, %s, is not known.\n", from);
+	    return (null);
+	}
+	if (graph.findLocation(to) == null) {
+	    System.err.printf("The location, %s, is not known.\n", to);
+	    return (null);
+	}
+	return (new RouteQuery(this, number, from, to, fields[2]));
+    }
+
+    // snap -- Return the name of the location given in the given field of
+    // the query with the given number.  A field of the form
+    // "@<longitude>,<latitude>" gives the location nearest to that point,
+    // and any other field is a location name, which is returned unchanged.
+    // Return null if the coordinates are malformed or the map is empty.
+    String snap(String field, int number) {
+	if (!(field.startsWith("@")))
+	    return (field);
+	String[] coordinates = field.substring(1).split(",");
+	try {
+	    if (coordinates.length == 2) {
+		Location loc
+		    = graph.nearestLocation(Double.parseDouble(coordinates[0]),
+					    Double.parseDouble(coordinates[1]));
+		if (loc != null)
+		    return (loc.name);
+	    }
+	} catch (NumberFormatException e) {
+	    // The coordinates are not numbers ...
+	}
+	System.err.printf("Query %d has bad coordinates:  %s\n", number, field);
+	return (null);
+    }
+
+    // serve -- Answer all of the queries read from the given reader, using
+    // the given number of threads, and write the results to the given
+    // stream as they finish.  A query whose search fails is reported as
+    // failed, and the others are still answered.  Return the number of
+    // queries answered.
+    public int serve(BufferedReader in, PrintStream out, int threadCount)
+	throws IOException, InterruptedException {
+	ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+	CompletionService<RouteQuery> completion
+	    = new ExecutorCompletionService<RouteQuery>(executor);
+	HashMap<Future<RouteQuery>, RouteQuery> submitted
+	    = new HashMap<Future<RouteQuery>, RouteQuery>();
+	int window = 4 * threadCount;    // most queries waiting at once
+	int pending = 0;
+	int number = 0;
+	int answered = 0;
+	try {
+	    String line;
+	    while ((line = in.readLine()) != null) {
+		if (line.trim().isEmpty())
+		    continue;
+		RouteQuery query = parse(line, ++number);
+		if (query == null)
+		    continue;
+		submitted.put(completion.submit(query), query);
+		pending++;
+		// Report finished queries, waiting if too many are pending ...
+		Future<RouteQuery> done;
+		while ((done = (pending >= window) ? completion.take()
+			: completion.poll()) != null) {
+		    finish(submitted.remove(done), done, out);
+		    pending--;
+		    answered++;
+		}
+	    }
+	    // Report the remaining queries ...
+	    while (pending > 0) {
+		Future<RouteQuery> done = completion.take();
+		finish(submitted.remove(done), done, out);
+		pending--;
+		answered++;
+	    }
+	} finally {
+	    executor.shutdownNow();
+	}
+	return (answered);
+    }
+
+    // finish -- Write the result of the given query, which the given
+    // future has finished answering, to the given stream, recording the
+    // reason for its failure if the search failed.
+    void finish(RouteQuery query, Future<RouteQuery> done, PrintStream out)
+	throws InterruptedException {
+	try {
+	    done.get();
+	} catch (ExecutionException e) {
+	    query.solution = null;
+	    query.failure = e.getCause();
+	}
+	query.report(out);
+    }
+
+    public static void main(String[] args) {
+	if ((args.length < 2) || (args.length > 5)) {
+	    System.err.println("Usage:  java RouteServer <location file> <road file> [<query file> [<thread count> [<statistics file>]]]");
+	    return;
+	}
+	int threadCount = Runtime.getRuntime().availableProcessors();
+	if (args.length > 3) {
+	    try {
+		threadCount = Integer.parseInt(args[3]);
+	    } catch (NumberFormatException e) {
+		threadCount = 0;
+	    }
+	    if (threadCount < 1) {
+		System.err.printf("Error:  Invalid thread count, %s.\n",
+				  args[3]);
+		System.err.println("Usage:  java RouteServer <location file> <road file> [<query file> [<thread count> [<statistics file>]]]");
+		return;
+	    }
+	}
+	try {
+	    Map graph = new Map(args[0], args[1]);
+	    if (!(graph.readLocations() && graph.readRoads())) {
+		System.err.println("Error:  Unable to read map.");
+		return;
+	    }
+	    Reader queryReader;
+	    if ((args.length > 2) && !(args[2].equals("-")))
+		queryReader = new FileReader(args[2]);
+	    else
+		queryReader = new InputStreamReader(System.in);
+	    BufferedReader in = new BufferedReader(queryReader);
+	    RouteServer server = new RouteServer(graph);
+	    if ((args.length > 4) && !(server.collector.open(args[4]))) {
+		System.err.printf("Error:  Unable to write statistics to %s.\n",
+				  args[4]);
+		return;
+	    }
+	    long startTime = System.nanoTime();
+	    int answered;
+	    try {
+		answered = server.serve(in, System.out, threadCount);
+	    } finally {
+		in.close();
+		if (!(server.collector.close()))
+		    System.err.printf("Error:  Unable to write statistics to %s.\n",
+				      args[4]);
+	    }
+	    double seconds = (System.nanoTime() - startTime) / 1.0e9;
+	    System.err.printf("Answered %d queries in %.3f seconds using %d threads (%.1f queries per second).\n",
+			      answered, seconds, threadCount,
+			      answered / seconds);
+	    System.err.printf("Route cache:  %s.\n",
+			      server.cache.statistics());
+	    System.err.print(server.collector.summary());
+	} catch (IOException e) {
+	    System.err.println("Error:  Unable to read queries.");
+	} catch (InterruptedException e) {
+	    System.err.println("Error:  Interrupted.");
+	}
+    }
+
+}
+
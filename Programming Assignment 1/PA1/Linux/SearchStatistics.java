@@ -0,0 +1,156 @@
+//
+// SearchStatistics
+//
+// This class records measurements of a single search for a path from one
+// location on a map to another:  the number of search tree nodes generated
+// and expanded, the largest number of nodes in the frontier at any one
+// time, the number of successors pruned by repeated state checking, the
+// number of times that the heuristic function was evaluated, the wall
+// clock time taken, and the cost of the solution found.  Search objects
+// keep a SearchStatistics object in their "statistics" field, filling it in
+// anew during each search, and a StatisticsCollector can gather the
+// statistics of many searches, summarizing them with histograms.  The
+// statistics of a search can be written as a line of comma-separated
+// values or as a JSON object.
+//
+// Created Sat Oct 17 20:58:05 PDT 2026
+//
+
+
+public class SearchStatistics {
+    public String algorithm = "";
+    public String initialLoc = "";
+    public String destinationLoc = "";
+    public int generatedCount = 0;
+    public int expansionCount = 0;
+    public int peakFrontierSize = 0;
+    public int pruneCount = 0;
+    public int heuristicCount = 0;
+    public long wallTime = 0;            // in nanoseconds
+    public double solutionCost = Double.POSITIVE_INFINITY;
+    long startTime = 0;
+
+    // Default constructor ...
+    public SearchStatistics() {
+    }
+
+    // Constructor with the name of the search algorithm specified ...
+    public SearchStatistics(String algorithm) {
+	this.algorithm = algorithm;
+    }
+
+    // start -- Clear the statistics, and start timing a search from the
+    // first given location to the second given location.
+    public void start(String initialLoc, String destinationLoc) {
+	this.initialLoc = initialLoc;
+	this.destinationLoc = destinationLoc;
+	generatedCount = 0;
+	expansionCount = 0;
+	peakFrontierSize = 0;
+	pruneCount = 0;
+	heuristicCount = 0;
+	wallTime = 0;
+	solutionCost = Double.POSITIVE_INFINITY;
+	startTime = System.nanoTime();
+    }
+
+    // stop -- Stop timing the search, recording the cost of the given
+    // solution, which is null if no solution was found.
+    public void stop(Waypoint solution) {
+	if (solution == null)
+	    stop(Double.POSITIVE_INFINITY);
+	else
+	    stop(solution.partialPathCost);
+    }
+
+    // stop -- Stop timing the search, recording the given solution cost,
+    // which is positive infinity if no solution was found.
+    public void stop(double cost) {
+	wallTime = System.nanoTime() - startTime;
+	solutionCost = cost;
+    }
+
+    // noteFrontierSize -- Record that the frontier holds the given number
+    // of nodes.
+    public void noteFrontierSize(int size) {
+	if (size > peakFrontierSize)
+	    peakFrontierSize = size;
+    }
+
+    // copy -- Return a new SearchStatistics object holding the same values
+    // as this one.
+    public SearchStatistics copy() {
+	SearchStatistics result = new SearchStatistics(algorithm);
+	result.initialLoc = initialLoc;
+	result.destinationLoc = destinationLoc;
+	result.generatedCount = generatedCount;
+	result.expansionCount = expansionCount;
+	result.peakFrontierSize = peakFrontierSize;
+	result.pruneCount = pruneCount;
+	result.heuristicCount = heuristicCount;
+	result.wallTime = wallTime;
+	result.solutionCost = solutionCost;
+	return (result);
+    }
+
+    // csvHeader -- Return the header line for the comma-separated values
+    // written by the "toCsv" method.
+    public static String csvHeader() {
+	return ("algorithm,initial,destination,generated,expanded,peak_frontier,pruned,heuristic_evaluations,wall_time_ns,cost");
+    }
+
+    // toCsv -- Return these statistics as a line of comma-separated values,
+    // in the order given by "csvHeader".  No solution is written as an
+    // empty cost.
+    public String toCsv() {
+	return (String.format("%s,%s,%s,%d,%d,%d,%d,%d,%d,%s",
+			      csvField(algorithm), csvField(initialLoc),
+			      csvField(destinationLoc),
+			      generatedCount, expansionCount,
+			      peakFrontierSize, pruneCount, heuristicCount,
+			      wallTime, costText("")));
+    }
+
+    // toJson -- Return these statistics as a JSON object.  No solution is
+    // written as a null cost.
+    public String toJson() {
+	return (String.format("{\"algorithm\":%s,\"initial\":%s,\"destination\":%s,\"generated\":%d,\"expanded\":%d,\"peak_frontier\":%d,\"pruned\":%d,\"heuristic_evaluations\":%d,\"wall_time_ns\":%d,\"cost\":%s}",
+			      quote(algorithm), quote(initialLoc),
+			      quote(destinationLoc), generatedCount,
+			      expansionCount, peakFrontierSize, pruneCount,
+			      heuristicCount, wallTime, costText("null")));
+    }
+
+    // costText -- Return the solution cost as text, or the given text if
+    // there is no solution.
+    String costText(String none) {
+	if (solutionCost == Double.POSITIVE_INFINITY)
+	    return (none);
+	return (Double.toString(solutionCost));
+    }
+
+    // csvField -- Return the given string as a field of comma-separated
+    // values, quoting it if it contains a comma or a quotation mark.
+    static String csvField(String s) {
+	if ((s.indexOf(',') < 0) && (s.indexOf('"') < 0))
+	    return (s);
+	return ("\"" + s.replace("\"", "\"\"") + "\"");
+    }
+
+    // quote -- Return the given string as a JSON string literal.
+    static String quote(String s) {
+	StringBuilder result = new StringBuilder("\"");
+	for (int i = 0; i < s.length(); i++) {
+	    char c = s.charAt(i);
+	    if ((c == '"') || (c == '\\'))
+		result.append('\\').append(c);
+	    else if (c < ' ')
+		result.append(String.format("\\u%04x", (int) c));
+	    else
+		result.append(c);
+	}
+	return (result.append('"').toString());
+    }
+
+}
+
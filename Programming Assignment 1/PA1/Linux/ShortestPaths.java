@@ -0,0 +1,156 @@
+//
+// ShortestPaths
+//
+// This class implements Dijkstra's algorithm for finding the costs of the
+// shortest paths from one location on a map to every other location, over
+// the compact form of the map.  (Running it over the reversed compact form
+// of a map finds the costs of the shortest paths from every location to the
+// given one, instead.)  An object of this class holds the working storage
+// for the algorithm, indexed by location id, and this storage is reused by
+// every run; only the entries touched by the previous run are reset, so a
+// run that stops early costs time in proportion to the part of the map that
+// it explored, rather than to the size of the whole map.  A ShortestPaths
+// object must not be used by more than one thread at a time, but separate
+// objects over the same CompactMap may be used concurrently.  A run may be
+// given a set of target locations, in which case it stops as soon as the
+// shortest paths to all of the targets are known.
+//
+// Created Sat Oct 17 15:52:14 PDT 2026
+// Modified Sat Oct 17 17:35:20 PDT 2026
+//   (Added runs that stop once given targets are reached.)
+//
+
+
+import java.util.*;
+
+
+public class ShortestPaths {
+    CompactMap graph;
+    double[] cost;        // location -> cost of shortest path found
+    int[] previous;       // location -> previous location on path, or -1
+    IndexedHeap frontier;
+    int[] touched;        // locations whose entries must be reset
+    int touchedCount = 0;
+    int[] targetMark;     // location -> number of the run targeting it
+    int runCount = 0;
+    public int expansionCount = 0;
+
+    // Constructor with the map to be searched specified ...
+    public ShortestPaths(CompactMap graph) {
+	int n = graph.locationCount();
+	this.graph = graph;
+	this.cost = new double[n];
+	this.previous = new int[n];
+	this.frontier = new IndexedHeap(n);
+	this.touched = new int[n];
+	this.targetMark = new int[n];
+	Arrays.fill(this.cost, Double.POSITIVE_INFINITY);
+	Arrays.fill(this.previous, -1);
+    }
+
+    // run -- Find the costs of the shortest paths from the location with
+    // the given id to every location that can be reached from it.
+    public void run(int source) {
+	reset();
+	touch(source, 0.0, -1);
+	frontier.insert(source, 0.0);
+	while (!(frontier.isEmpty()))
+	    expand(frontier.removeMin());
+    }
+
+    // run -- Find the costs of the shortest paths from the location with
+    // the given id to the locations with the ids in the given array,
+    // stopping as soon as all of them are known.  The costs of paths to
+    // other locations may not be shortest ones.
+    public void run(int source, int[] targets) {
+	reset();
+	runCount++;
+	int remaining = 0;
+	for (int t : targets) {
+	    if (targetMark[t] != runCount) {
+		targetMark[t] = runCount;
+		remaining++;
+	    }
+	}
+	touch(source, 0.0, -1);
+	frontier.insert(source, 0.0);
+	while (!(frontier.isEmpty()) && (remaining > 0)) {
+	    int loc = frontier.removeMin();
+	    if (targetMark[loc] == runCount)
+		remaining--;
+	    expand(loc);
+	}
+    }
+
+    // path -- Return the ids of the locations on the shortest path found by
+    // the most recent run to the location with the given id, starting with
+    // the source, or null if no path to the location was found.
+    public int[] path(int loc) {
+	if (cost[loc] == Double.POSITIVE_INFINITY)
+	    return (null);
+	int length = 0;
+	for (int l = loc; l >= 0; l = previous[l])
+	    length++;
+	int[] path = new int[length];
+	for (int l = loc; l >= 0; l = previous[l])
+	    path[--length] = l;
+	return (path);
+    }
+
+    // cost -- Return the cost of the shortest path, found by the most recent
+    // run, to the location with the given id, or positive infinity if no
+    // path to that location was found.
+    public double cost(int loc) {
+	return (cost[loc]);
+    }
+
+    // previous -- Return the id of the location before the one with the
+    // given id on the shortest path found by the most recent run, or -1 if
+    // the given location is the source or was not reached.
+    public int previous(int loc) {
+	return (previous[loc]);
+    }
+
+    // costs -- Return a new array holding the costs of the shortest paths
+    // found by the most recent run, indexed by location id.
+    public double[] costs() {
+	return (Arrays.copyOf(cost, cost.length));
+    }
+
+    // expand -- Relax every road leading out of the location with the given
+    // id, which has just been removed from the frontier.
+    void expand(int loc) {
+	expansionCount++;
+	double g = cost[loc];
+	int lastRoad = graph.firstRoad[loc + 1];
+	for (int r = graph.firstRoad[loc]; r < lastRoad; r++) {
+	    int child = graph.roadTarget[r];
+	    double childCost = g + graph.roadCost[r];
+	    if (childCost < cost[child]) {
+		touch(child, childCost, loc);
+		frontier.insert(child, childCost);
+	    }
+	}
+    }
+
+    // touch -- Record a new path to the location with the given id.
+    void touch(int loc, double g, int from) {
+	if (cost[loc] == Double.POSITIVE_INFINITY)
+	    touched[touchedCount++] = loc;
+	cost[loc] = g;
+	previous[loc] = from;
+    }
+
+    // reset -- Clear the results of the previous run.
+    void reset() {
+	for (int i = 0; i < touchedCount; i++) {
+	    cost[touched[i]] = Double.POSITIVE_INFINITY;
+	    previous[touched[i]] = -1;
+	}
+	touchedCount = 0;
+	frontier.clear();
+	expansionCount = 0;
+    }
+
+}
+
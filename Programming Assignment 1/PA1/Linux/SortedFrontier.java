@@ -11,11 +11,19 @@
 // is the first to be removed.  Note that the insertion method is overloaded
 // to accept either an individual Waypoint or a list of multiple Waypoint
 // objects.  This class is intended to to be used to implement the frontier
-// (i.e., the "fringe" or "open list") of nodes in a search tree.
+// (i.e., the "fringe" or "open list") of nodes in a search tree.  The
+// contained Waypoint objects are also indexed by location name, so that
+// the "contains" and "find" methods can answer in constant time.
 //
 // David Noelle -- Created Tue Feb 27 11:25:05 PST 2007
 //                 Modified Wed Oct  6 02:32:34 PDT 2010
 //                   (Implemented overloaded "contains" and "find" functions.)
+//                 Modified Sat Oct 17 11:02:16 PDT 2026
+//                   (Indexed fringe members by location name.)
+//                 Modified Sun Oct 18 07:43:31 PDT 2026
+//                   (Moved the SortBy enumeration into its own file.)
+//                 Modified Sun Oct 18 10:31:06 PDT 2026
+//                   (Indexed exactly the Waypoints held in the fringe.)
 //
 
 
@@ -23,9 +31,6 @@ import java.util.*;
 import java.io.*;
 
 
-enum SortBy { g, h, f }
-
-
 class WaypointComparator implements Comparator<Waypoint>, Serializable {
     static final long serialVersionUID = 1;  // Version 1
     SortBy statistic;
@@ -90,7 +95,8 @@ class WaypointComparator implements Comparator<Waypoint>, Serializable {
 
 public class SortedFrontier {
     SortBy sortingStrategy;
-    SortedSet<Waypoint> fringe;
+    TreeSet<Waypoint> fringe;
+    HashMap<String, List<Waypoint>> locationIndex;
 
     // Default constructor ...
     public SortedFrontier() {
@@ -98,6 +104,7 @@ public class SortedFrontier {
 	Comparator<Waypoint> sortingComparator 
 	    = new WaypointComparator(this.sortingStrategy);
 	this.fringe = new TreeSet<Waypoint>(sortingComparator);
+	this.locationIndex = new HashMap<String, List<Waypoint>>();
     }
 
     // Constructor with sorting strategy specified ...
@@ -106,6 +113,7 @@ public class SortedFrontier {
 	Comparator<Waypoint> sortingComparator 
 	    = new WaypointComparator(this.sortingStrategy);
 	this.fringe = new TreeSet<Waypoint>(sortingComparator);
+	this.locationIndex = new HashMap<String, List<Waypoint>>();
     }
 
     // isEmpty -- Return true if and only if there are currently no nodes in 
@@ -114,6 +122,11 @@ public class SortedFrontier {
 	return (fringe.isEmpty());
     }
 
+    // size -- Return the number of nodes currently in the frontier.
+    public int size() {
+	return (fringe.size());
+    }
+
     // removeTop -- Return the Waypoint object at the top of the frontier
     // list.  Also, remove this node from the frontier.  Return null if the
     // frontier is empty.
@@ -121,8 +134,8 @@ public class SortedFrontier {
 	if (fringe.isEmpty()) {
 	    return (null);
 	} else {
-	    Waypoint top = fringe.first();
-	    fringe.remove(top);
+	    Waypoint top = fringe.pollFirst();
+	    forget(top);
 	    return (top);
 	}
     }
@@ -130,7 +143,8 @@ public class SortedFrontier {
     // addSorted -- Add the given Waypoint object to the frontier in the
     // appropriate position, given its sorting statistics.
     public void addSorted(Waypoint wp) {
-	fringe.add(wp);
+	if (fringe.add(wp))
+	    remember(wp);
     }
     
     // addSorted -- Add the given list of Waypoint objects to the frontier
@@ -141,9 +155,14 @@ public class SortedFrontier {
 	}
     }
 
-    // remove -- Remove a specified Waypoint object from the frontier.
+    // remove -- Remove a specified Waypoint object from the frontier.  A
+    // different Waypoint that merely ties with it in the sorting order is
+    // left in place.
     public void remove(Waypoint wp) {
-	fringe.remove(wp);
+	if (fringe.floor(wp) == wp) {
+	    fringe.remove(wp);
+	    forget(wp);
+	}
     }
 
     // remove -- Remove all of the Waypoint objects in the given list from
@@ -157,14 +176,9 @@ public class SortedFrontier {
     // contains -- Return true if and only if the frontier contains a
     // Waypoint with the given Location name.
     public boolean contains(String name) {
-	// This linear search is very inefficient, but it cannot be avoided
-	// without maintaining a parallel data structure containing the 
-	// fringe members (e.g., a HashSet) indexed by location name.
-	for (Waypoint element : fringe)
-	    if (name.equals(element.loc.name))
-		return (true);
-	// The location was not found in the fringe ...
-	return (false);
+	// The parallel index of fringe members by location name avoids a
+	// linear search through the fringe ...
+	return (locationIndex.containsKey(name));
     }
 
     // contains -- Return true if and only if the frontier contains a
@@ -183,14 +197,13 @@ public class SortedFrontier {
     // find -- Return a Waypoint in the frontier with the given location
     // name, or null if there is no such Waypoint.
     public Waypoint find(String name) {
-	// This linear search is very inefficient, but it cannot be avoided
-	// without maintaining a parallel data structure containing the 
-	// fringe members (e.g., a HashSet) indexed by location name.
-	for (Waypoint element : fringe)
-	    if (name.equals(element.loc.name))
-		return (element);
-	// The location was not found in the fringe ...
-	return (null);
+	// The parallel index of fringe members by location name avoids a
+	// linear search through the fringe ...
+	List<Waypoint> elements = locationIndex.get(name);
+	if (elements == null)
+	    // The location was not found in the fringe ...
+	    return (null);
+	return (elements.get(0));
     }
 
     // find -- Return a Waypoint in the frontier with the given location
@@ -205,6 +218,33 @@ public class SortedFrontier {
 	return (find(wp.loc));
     }
 
+    // remember -- Record the given Waypoint object, which has just been
+    // added to the fringe, in the index of fringe members.  There is
+    // usually only one Waypoint per location, unless repeated state
+    // checking is not being done.
+    void remember(Waypoint wp) {
+	List<Waypoint> elements = locationIndex.get(wp.loc.name);
+	if (elements == null) {
+	    elements = new ArrayList<Waypoint>(1);
+	    locationIndex.put(wp.loc.name, elements);
+	}
+	elements.add(wp);
+    }
+
+    // forget -- Remove the given Waypoint object, which has just been
+    // taken out of the fringe, from the index of fringe members.  It is
+    // that very object, not just an equal one, that is removed.
+    void forget(Waypoint wp) {
+	List<Waypoint> elements = locationIndex.get(wp.loc.name);
+	for (int i = 0; i < elements.size(); i++) {
+	    if (elements.get(i) == wp) {
+		elements.remove(i);
+		break;
+	    }
+	}
+	if (elements.isEmpty())
+	    locationIndex.remove(wp.loc.name);
+    }
 
 }
 
@@ -0,0 +1,25 @@
+//
+// UniformCostSearch
+//
+// This class implements uniform-cost search for a path from one location on
+// a map to another, expanding the node with the lowest partial path cost
+// first.  It is a BestFirstSearch sorting by partial path cost, and the
+// search itself, with or without repeated state checking, is performed by
+// the SearchKernel.  The number of node expansions performed by the most
+// recent search is kept in "expansionCount".
+//
+// Created Sun Oct 18 02:16:45 PDT 2026
+//
+
+
+public class UniformCostSearch extends BestFirstSearch {
+
+    // Constructor with the map, the initial and destination location names,
+    // and the depth limit specified ...
+    public UniformCostSearch(Map graph, String initialLoc,
+			     String destinationLoc, int limit) {
+	super(graph, initialLoc, destinationLoc, limit, SortBy.g);
+    }
+
+}
+
@@ -14,8 +14,14 @@
 // in this node's Location object.  Second, the "reportSolution" recursive 
 // method uses the "previous" references of nodes in the search tree in order
 // to output the path from the initial node of the search tree to this node.
+// Nodes may also be expanded using a CompactMap, in which case the roads
+// leading out of the node's location are read from primitive arrays.
 //
-// David Noelle -- Sun Feb 11 18:26:42 PST 2007
+// David Noelle -- Created Sun Feb 11 18:26:42 PST 2007
+//                 Modified Sat Oct 17 12:14:27 PDT 2026
+//                   (Added expansion over a CompactMap.)
+//                 Modified Sat Oct 17 13:48:30 PDT 2026
+//                   (Cleared old children in constant time.)
 //
 
 
@@ -54,7 +60,7 @@ public class Waypoint {
     // is correctly calculated.  This version of this method, which takes no
     // arguments, always sets the heuristic values of nodes to zero.
     public void expand() {
-	options.removeAll(options);
+	options.clear();
 	for (Road r : loc.roads) {
 	    Waypoint option = new Waypoint(r.toLocation, this);
 	    option.depth = this.depth + 1;
@@ -71,7 +77,7 @@ public class Waypoint {
     // heuristic function object as an argument, uses the given heuristic
     // function to fill in the heuristic values of the children nodes.
     public void expand(Heuristic h) {
-	options.removeAll(options);
+	options.clear();
 	for (Road r : loc.roads) {
 	    Waypoint option = new Waypoint(r.toLocation, this);
 	    option.depth = this.depth + 1;
@@ -81,6 +87,41 @@ public class Waypoint {
 	}
     }
 
+    // expand -- Fill in the collection of children of this node, as above,
+    // but enumerate the roads leading out of this node's location using the
+    // given compact form of the map, rather than the location's list of Road
+    // objects.  The heuristic values of nodes are set to zero.
+    public void expand(CompactMap graph) {
+	options.clear();
+	int id = loc.id;
+	for (int r = graph.firstRoad[id]; r < graph.firstRoad[id + 1]; r++) {
+	    Waypoint option 
+		= new Waypoint(graph.locations[graph.roadTarget[r]], this);
+	    option.depth = this.depth + 1;
+	    option.partialPathCost = this.partialPathCost + graph.roadCost[r];
+	    option.heuristicValue = 0.0;
+	    options.add(option);
+	}
+    }
+
+    // expand -- Fill in the collection of children of this node, as above,
+    // but enumerate the roads leading out of this node's location using the
+    // given compact form of the map, rather than the location's list of Road
+    // objects.  The given heuristic function is used to fill in the
+    // heuristic values of the children nodes.
+    public void expand(CompactMap graph, Heuristic h) {
+	options.clear();
+	int id = loc.id;
+	for (int r = graph.firstRoad[id]; r < graph.firstRoad[id + 1]; r++) {
+	    Waypoint option 
+		= new Waypoint(graph.locations[graph.roadTarget[r]], this);
+	    option.depth = this.depth + 1;
+	    option.partialPathCost = this.partialPathCost + graph.roadCost[r];
+	    option.heuristicValue = h.heuristicFunction(option);
+	    options.add(option);
+	}
+    }
+
     // isFinalDestination -- Return true if and only if the name of the
     // location corresponding to this node matches the provided argument.
     public boolean isFinalDestination(String destinationName) {
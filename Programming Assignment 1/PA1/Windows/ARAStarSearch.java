@@ -0,0 +1,409 @@
+//
+// ARAStarSearch
+//
+// This class implements anytime repairing A* (ARA*) search for a path from
+// one location on a map to another.  A first solution is found quickly by
+// a weighted A* search, which expands nodes in order of partial path cost
+// plus a weight, greater than one, times the heuristic value, and the
+// solution is then improved by a series of further searches with smaller
+// and smaller weights, until the weight reaches one or a time budget runs
+// out.  Each search reuses the work of the searches before it:  the
+// cheapest known partial path cost of every location is kept, and a
+// location whose cost is lowered after it has been expanded in the current
+// search is set aside, as "inconsistent", rather than expanded again, to be
+// put back into the frontier at the start of the next search.  With a
+// consistent heuristic function, the cost of the solution found by each
+// search is no more than its weight times the cost of an optimal solution,
+// and a tighter bound on this ratio is computed from the smallest sum of
+// partial path cost and heuristic value in the frontier and among the
+// inconsistent locations.  Every time that the solution, or the bound, is
+// improved, an AnytimeSolution recording it is added to "solutions", and
+// it is also reported to an AnytimeListener, if one is given, so that a
+// caller can use the first solution while better ones are sought.  The
+// time budget is only checked once a first solution has been found, so
+// the first search always runs to completion.  The search is performed
+// over the compact form of the map, with its working storage indexed by
+// location id and reused from one search to the next, with only the
+// entries touched by the previous search being reset.  The number of node
+// expansions performed by the most recent search, across all of its
+// weights, is kept in "expansionCount", and the number of weights tried is
+// kept in "iterationCount".  A depth limit is enforced, and the search
+// stops, returning the best solution found so far, if that limit is
+// reached, and setting "limitReached".  More detailed measurements of the
+// most recent search are kept in "statistics".
+//
+// Created Sun Oct 18 03:02:19 PDT 2026
+// Modified Sun Oct 18 08:26:03 PDT 2026
+//   (Gave a bound of one to a solution with no cost.)
+// Modified Sun Oct 18 09:36:12 PDT 2026
+//   (Recorded whether a limit was reached.)
+// Modified Sun Oct 18 10:12:40 PDT 2026
+//   (Rejected weights that would keep the search from ending.)
+//
+
+
+import java.util.*;
+
+
+// AnytimeSolution records one of the solutions found by an anytime search,
+// along with the bound on its suboptimality and when it was found ...
+class AnytimeSolution {
+    Waypoint solution;
+    double bound;            // cost is at most this times the optimal cost
+    double weight;           // the heuristic weight of the search
+    long time;               // nanoseconds since the search started
+    int expansionCount;      // expansions since the search started
+
+    // Constructor with all of the fields specified ...
+    AnytimeSolution(Waypoint solution, double bound, double weight,
+		    long time, int expansionCount) {
+	this.solution = solution;
+	this.bound = bound;
+	this.weight = weight;
+	this.time = time;
+	this.expansionCount = expansionCount;
+    }
+
+    // cost -- Return the cost of the solution.
+    double cost() {
+	return (solution.partialPathCost);
+    }
+
+}
+
+
+// AnytimeListener is implemented by objects that need to know as soon as
+// an anytime search improves its solution ...
+interface AnytimeListener {
+
+    // solutionImproved -- Note that the given solution has been found.
+    void solutionImproved(AnytimeSolution improvement);
+
+}
+
+
+public class ARAStarSearch {
+    // How a search with a single weight ended ...
+    static final int COMPLETE = 0;      // the solution is within the weight
+    static final int OUT_OF_TIME = 1;   // the time budget has run out
+    static final int AT_LIMIT = 2;      // the depth limit has been reached
+    Map graph;
+    String initialLoc;
+    String destinationLoc;
+    int limit;
+    Heuristic heuristic;
+    double initialWeight = 3.0;
+    double weightStep = 0.5;
+    long timeBudget = 0;     // in nanoseconds, or zero for no budget
+    AnytimeListener listener = null;
+    // The working storage, indexed by location id ...
+    CompactMap map = null;
+    double[] cost;           // cheapest partial path cost found
+    double[] hValue;         // heuristic value, or NaN if not yet computed
+    int[] parent;            // previous location on that path, or -1
+    int[] depth;             // depth of that path
+    int[] closedIteration;   // iteration in which the location was expanded
+    boolean[] inconsistent;  // true if set aside for the next iteration
+    int[] incons;            // the locations set aside
+    int inconsCount = 0;
+    int[] touched;           // locations whose entries must be reset
+    int touchedCount = 0;
+    IndexedHeap open;
+    double weight;
+    long deadline;
+    public int expansionCount = 0;
+    public int iterationCount = 0;
+    public boolean limitReached = false;   // true if the last search hit it
+    public List<AnytimeSolution> solutions = new ArrayList<AnytimeSolution>();
+    public SearchStatistics statistics = new SearchStatistics("arastar");
+
+    // Constructor with the map, the initial and destination location names,
+    // and the depth limit specified.  The heuristic function is a
+    // GoodHeuristic until another is provided.
+    public ARAStarSearch(Map graph, String initialLoc, String destinationLoc,
+			 int limit) {
+	this.graph = graph;
+	this.initialLoc = initialLoc;
+	this.destinationLoc = destinationLoc;
+	this.limit = limit;
+	this.heuristic = new GoodHeuristic();
+    }
+
+    // setHeuristic -- Use the given heuristic function during search.  The
+    // destination of the heuristic function is set at the start of each
+    // search.
+    public void setHeuristic(Heuristic heuristic) {
+	this.heuristic = heuristic;
+    }
+
+    // setWeights -- Start each search with the first given weight, and
+    // lower the weight by the second given amount, but not below one, for
+    // each search after the first.  The weights are left unchanged, and
+    // false is returned, if the first weight is not a finite number, or if
+    // the second is not a finite positive number, as the weight would then
+    // never reach one.
+    public boolean setWeights(double initialWeight, double weightStep) {
+	if (Double.isNaN(initialWeight) || Double.isInfinite(initialWeight)) {
+	    System.err.printf("The initial weight, %f, is not valid.\n",
+			      initialWeight);
+	    return (false);
+	}
+	if (!(weightStep > 0.0) || Double.isInfinite(weightStep)) {
+	    System.err.printf("The weight step, %f, is not valid.\n",
+			      weightStep);
+	    return (false);
+	}
+	this.initialWeight = Math.max(1.0, initialWeight);
+	this.weightStep = weightStep;
+	return (true);
+    }
+
+    // setTimeBudget -- Stop improving the solution once the given number of
+    // milliseconds have passed since the start of the search.  A budget of
+    // zero lets the search continue until the weight reaches one.
+    public void setTimeBudget(double milliseconds) {
+	this.timeBudget = (long) (milliseconds * 1.0e6);
+    }
+
+    // setListener -- Report each improved solution to the given listener.
+    public void setListener(AnytimeListener listener) {
+	this.listener = listener;
+    }
+
+    // search -- Search for a path from the initial location to the
+    // destination location, improving it until the time budget runs out.
+    // Return the Waypoint at the end of the best solution path found, or
+    // null if no solution is found.
+    public Waypoint search() {
+	statistics.start(initialLoc, destinationLoc);
+	solutions.clear();
+	Waypoint solution = find();
+	statistics.expansionCount = expansionCount;
+	statistics.stop(solution);
+	return (solution);
+    }
+
+    // bound -- Return the suboptimality bound of the best solution found by
+    // the most recent search, or positive infinity if none was found.
+    public double bound() {
+	if (solutions.isEmpty())
+	    return (Double.POSITIVE_INFINITY);
+	return (solutions.get(solutions.size() - 1).bound);
+    }
+
+    // find -- Perform the search, as described for the "search" method.
+    Waypoint find() {
+	long startTime = System.nanoTime();
+	deadline = (timeBudget > 0) ? startTime + timeBudget : Long.MAX_VALUE;
+	expansionCount = 0;
+	iterationCount = 0;
+	limitReached = false;
+	Location start = graph.findLocation(initialLoc);
+	Location goal = graph.findLocation(destinationLoc);
+	if ((start == null) || (goal == null))
+	    return (null);
+	prepare(graph.compact());
+	heuristic.setDestination(goal);
+	weight = initialWeight;
+	touch(start.id, 0.0, -1, 0);
+	open.insert(start.id, key(start.id));
+	statistics.generatedCount++;
+	statistics.noteFrontierSize(1);
+	AnytimeSolution best = null;
+	while (true) {
+	    iterationCount++;
+	    int outcome = improvePath(goal.id, best != null);
+	    if (outcome == AT_LIMIT)
+		limitReached = true;
+	    if (outcome != COMPLETE)
+		break;
+	    if (cost[goal.id] == Double.POSITIVE_INFINITY)
+		// The destination cannot be reached ...
+		break;
+	    Waypoint solution = path(goal.id);
+	    // A solution costing no more than the lower bound is optimal, even
+	    // when both are zero ...
+	    double lower = lowerBound();
+	    double bound = 1.0;
+	    if (solution.partialPathCost > lower)
+		bound = Math.max(1.0, Math.min(weight,
+					       solution.partialPathCost / lower));
+	    if ((best == null)
+		|| (solution.partialPathCost < best.cost())
+		|| ((solution.partialPathCost == best.cost())
+		    && (bound < best.bound))) {
+		best = new AnytimeSolution(solution, bound, weight,
+					   System.nanoTime() - startTime,
+					   expansionCount);
+		solutions.add(best);
+		if (listener != null)
+		    listener.solutionImproved(best);
+	    }
+	    if ((best.bound <= 1.0) || (weight <= 1.0)
+		|| (System.nanoTime() >= deadline))
+		break;
+	    // Lower the weight, and start again with the inconsistent
+	    // locations put back into the frontier ...
+	    weight = Math.max(1.0, weight - weightStep);
+	    reopen();
+	}
+	return ((best == null) ? null : best.solution);
+    }
+
+    // improvePath -- Expand locations in order of their keys, for the
+    // current weight, until the destination has the lowest key, returning
+    // COMPLETE then or when the frontier is exhausted.  If a solution has
+    // already been found, OUT_OF_TIME is returned if the time budget runs
+    // out first.  AT_LIMIT is returned if the depth limit is reached.
+    int improvePath(int goal, boolean haveSolution) {
+	CompactMap map = this.map;
+	while (!(open.isEmpty())) {
+	    if (cost[goal] + weight * h(goal) <= open.peekKey())
+		return (COMPLETE);
+	    if (haveSolution && ((expansionCount & 0xff) == 0)
+		&& (System.nanoTime() >= deadline))
+		return (OUT_OF_TIME);
+	    int loc = open.removeMin();
+	    if (depth[loc] >= limit)
+		// The depth limit has been reached ...
+		return (AT_LIMIT);
+	    closedIteration[loc] = iterationCount;
+	    expansionCount++;
+	    for (int r = map.firstRoad[loc]; r < map.firstRoad[loc + 1]; r++) {
+		int child = map.roadTarget[r];
+		double g = cost[loc] + map.roadCost[r];
+		if (g >= cost[child]) {
+		    statistics.pruneCount++;
+		    continue;
+		}
+		touch(child, g, loc, depth[loc] + 1);
+		statistics.generatedCount++;
+		if (closedIteration[child] != iterationCount) {
+		    open.insert(child, key(child));
+		    statistics.noteFrontierSize(open.size());
+		} else if (!(inconsistent[child])) {
+		    // Already expanded with this weight, so set it aside ...
+		    inconsistent[child] = true;
+		    incons[inconsCount++] = child;
+		}
+	    }
+	}
+	return (COMPLETE);
+    }
+
+    // reopen -- Put the inconsistent locations back into the frontier, and
+    // recompute the keys of everything in the frontier for the new weight.
+    void reopen() {
+	int count = open.size();
+	int[] ids = Arrays.copyOf(open.heap, count + inconsCount);
+	for (int i = 0; i < inconsCount; i++) {
+	    int loc = incons[i];
+	    inconsistent[loc] = false;
+	    if (!(open.contains(loc)))
+		ids[count++] = loc;
+	}
+	inconsCount = 0;
+	open.clear();
+	for (int i = 0; i < count; i++)
+	    open.insert(ids[i], key(ids[i]));
+	statistics.noteFrontierSize(open.size());
+    }
+
+    // lowerBound -- Return the smallest sum of partial path cost and
+    // heuristic value of any location in the frontier or set aside, which
+    // is no more than the cost of an optimal solution, or positive infinity
+    // if there are no such locations.
+    double lowerBound() {
+	double bound = Double.POSITIVE_INFINITY;
+	for (int i = 0; i < open.size(); i++) {
+	    int loc = open.heap[i];
+	    bound = Math.min(bound, cost[loc] + h(loc));
+	}
+	for (int i = 0; i < inconsCount; i++) {
+	    int loc = incons[i];
+	    bound = Math.min(bound, cost[loc] + h(loc));
+	}
+	return (bound);
+    }
+
+    // key -- Return the key of the given location for the current weight.
+    double key(int loc) {
+	return (cost[loc] + weight * h(loc));
+    }
+
+    // h -- Return the heuristic value of the given location, computing it
+    // the first time that it is needed in each search.
+    double h(int loc) {
+	double value = hValue[loc];
+	if (Double.isNaN(value)) {
+	    value = heuristic.heuristicFunction(map.locations[loc]);
+	    hValue[loc] = value;
+	    statistics.heuristicCount++;
+	    if (cost[loc] == Double.POSITIVE_INFINITY)
+		// Make sure that the entry is reset after the search ...
+		touched[touchedCount++] = loc;
+	}
+	return (value);
+    }
+
+    // path -- Return the Waypoint at the end of the path to the given
+    // location, following the parents of the locations back to the start.
+    // (The recorded depth of a location may be out of date, since the path
+    // to its parent may have been improved since it was recorded.)
+    Waypoint path(int loc) {
+	int length = 0;
+	for (int p = loc; p >= 0; p = parent[p])
+	    length++;
+	int[] locs = new int[length];
+	for (int i = length - 1; i >= 0; i--) {
+	    locs[i] = loc;
+	    loc = parent[loc];
+	}
+	return (map.toWaypoint(locs, length));
+    }
+
+    // touch -- Record the given partial path cost, parent, and depth for
+    // the given location, noting that it must be reset after the search.
+    void touch(int loc, double g, int from, int d) {
+	if ((cost[loc] == Double.POSITIVE_INFINITY)
+	    && Double.isNaN(hValue[loc]))
+	    touched[touchedCount++] = loc;
+	cost[loc] = g;
+	parent[loc] = from;
+	depth[loc] = d;
+    }
+
+    // prepare -- Make the working storage ready for a search of the given
+    // compact map, allocating it if the map has changed, and otherwise
+    // resetting only the entries touched by the previous search.
+    void prepare(CompactMap compact) {
+	int n = compact.locationCount();
+	if (map != compact) {
+	    map = compact;
+	    cost = new double[n];
+	    hValue = new double[n];
+	    parent = new int[n];
+	    depth = new int[n];
+	    closedIteration = new int[n];
+	    inconsistent = new boolean[n];
+	    incons = new int[n];
+	    touched = new int[n];
+	    open = new IndexedHeap(n);
+	    Arrays.fill(cost, Double.POSITIVE_INFINITY);
+	    Arrays.fill(hValue, Double.NaN);
+	} else {
+	    for (int i = 0; i < touchedCount; i++) {
+		int loc = touched[i];
+		cost[loc] = Double.POSITIVE_INFINITY;
+		hValue[loc] = Double.NaN;
+		closedIteration[loc] = 0;
+		inconsistent[loc] = false;
+	    }
+	    open.clear();
+	}
+	touchedCount = 0;
+	inconsCount = 0;
+    }
+
+}
+
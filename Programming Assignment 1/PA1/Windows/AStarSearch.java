@@ -0,0 +1,27 @@
+//
+// AStarSearch
+//
+// This class implements A* search for a path from one location on a map to
+// another, expanding the node with the lowest sum of partial path cost and
+// heuristic value first.  It is a BestFirstSearch sorting by this sum, and
+// the search itself, with or without repeated state checking, is performed
+// by the SearchKernel.  The heuristic function is a GoodHeuristic until
+// another is provided.  The number of node expansions performed by the
+// most recent search is kept in "expansionCount".
+//
+// Created Sun Oct 18 02:16:45 PDT 2026
+//
+
+
+public class AStarSearch extends BestFirstSearch {
+
+    // Constructor with the map, the initial and destination location names,
+    // and the depth limit specified ...
+    public AStarSearch(Map graph, String initialLoc, String destinationLoc,
+		       int limit) {
+	super(graph, initialLoc, destinationLoc, limit, SortBy.f);
+	setHeuristic(new GoodHeuristic());
+    }
+
+}
+
@@ -0,0 +1,71 @@
+//
+// ArrayClosedSet
+//
+// This class implements a ClosedSetPolicy that records which locations have
+// been expanded, the frontier node for each location, and the cheapest
+// partial path cost found for each location, in arrays indexed by location
+// id.  The arrays are kept from one search to the next, so that they need
+// not be allocated again, but they must be cleared in full before each
+// search.
+//
+// Created Sun Oct 18 07:36:50 PDT 2026
+//
+
+
+import java.util.*;
+
+
+public class ArrayClosedSet implements ClosedSetPolicy {
+    boolean[] closed = new boolean[0];   // location -> already expanded
+    int[] frontierNode = new int[0];     // location -> frontier node, or -1
+    double[] bestCost = new double[0];   // location -> cheapest cost found
+
+    // start -- Forget every location, before a search of a map with the
+    // given number of locations.
+    public void start(int locationCount) {
+	if (closed.length < locationCount) {
+	    closed = new boolean[locationCount];
+	    frontierNode = new int[locationCount];
+	    bestCost = new double[locationCount];
+	} else {
+	    Arrays.fill(closed, false);
+	}
+	Arrays.fill(frontierNode, -1);
+	Arrays.fill(bestCost, Double.POSITIVE_INFINITY);
+    }
+
+    // isClosed -- Return true if the given location has been expanded.
+    public boolean isClosed(int loc) {
+	return (closed[loc]);
+    }
+
+    // close -- Record that the given location has been expanded, and that
+    // it no longer has a node in the frontier.
+    public void close(int loc) {
+	closed[loc] = true;
+	frontierNode[loc] = -1;
+    }
+
+    // frontierNode -- Return the frontier node for the given location, or
+    // -1 if there is none.
+    public int frontierNode(int loc) {
+	return (frontierNode[loc]);
+    }
+
+    // setFrontierNode -- Record that the given node is the frontier node
+    // for the given location.
+    public void setFrontierNode(int loc, int node) {
+	frontierNode[loc] = node;
+    }
+
+    // improve -- Return true if the given cost is less than the cheapest
+    // cost found for the given location, recording it as the cheapest.
+    public boolean improve(int loc, double cost) {
+	if (cost >= bestCost[loc])
+	    return (false);
+	bestCost[loc] = cost;
+	return (true);
+    }
+
+}
+
@@ -0,0 +1,55 @@
+//
+// BestFirstSearch
+//
+// This class implements a best-first search for a path from one location
+// on a map to another, with the order in which nodes are expanded being
+// determined by partial path cost (uniform-cost search), by heuristic value
+// (greedy search), or by the sum of these two statistics (A* search).  It
+// is the SearchKernel with a PriorityPolicy frontier, an IndexedHeap of
+// search tree node ids with ties broken in favor of the node that was
+// generated first.  When repeated state checking is requested, locations
+// that have already been expanded are not revisited, and a location is
+// never in the frontier more than once; if a cheaper path to a location in
+// the frontier is found, the frontier node is replaced.  The number of node
+// expansions performed by the most recent search is kept in
+// "expansionCount", and more detailed measurements are kept in
+// "statistics", including the number of successors pruned by repeated
+// state checking and the number of heuristic function evaluations.  A
+// depth limit is enforced, and the search fails if that limit is reached.
+//
+// Created Sat Oct 17 14:20:06 PDT 2026
+// Modified Sat Oct 17 20:58:05 PDT 2026
+//   (Recorded search statistics.)
+// Modified Sun Oct 18 02:16:45 PDT 2026
+//   (Moved the search loop into SearchKernel.)
+//
+
+
+public class BestFirstSearch extends SearchKernel {
+    SortBy strategy;
+
+    // Constructor with the map, the initial and destination location names,
+    // the depth limit, and the sorting strategy specified.  The heuristic
+    // function assigns zero to every node until another is provided.
+    public BestFirstSearch(Map graph, String initialLoc,
+			   String destinationLoc, int limit, SortBy strategy) {
+	super(graph, initialLoc, destinationLoc, limit,
+	      new PriorityPolicy(strategy), algorithmName(strategy));
+	this.strategy = strategy;
+    }
+
+    // algorithmName -- Return the name of the search algorithm that uses
+    // the given sorting strategy.
+    static String algorithmName(SortBy strategy) {
+	switch (strategy) {
+	case h:
+	    return ("greedy");
+	case f:
+	    return ("astar");
+	default:
+	    return ("ucs");
+	}
+    }
+
+}
+
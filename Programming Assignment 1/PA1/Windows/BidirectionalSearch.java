@@ -0,0 +1,238 @@
+//
+// BidirectionalSearch
+//
+// This class implements a bidirectional search for a shortest path from one
+// location on a map to another.  A forward search expands locations outward
+// from the initial location, following roads leading out of locations, and
+// a backward search expands locations outward from the destination location,
+// following roads leading into locations (using the reversed compact form
+// of the map).  The two searches take turns, with the search whose frontier
+// has the smaller minimum value going next, and the shortest path found so
+// far through a location reached by both searches is remembered.  Searching
+// stops when the sum of the minimum values of the two frontiers is no less
+// than the cost of that path, at which point no shorter path can exist.  On
+// point-to-point queries, this typically expands about half as many nodes
+// as a unidirectional uniform-cost search.
+//
+// By default, both searches are uniform-cost searches (i.e., this is a
+// bidirectional version of Dijkstra's algorithm).  If heuristic functions
+// are provided, a bidirectional A* search is performed instead, using the
+// average of the forward and backward heuristic values to keep the two
+// searches consistent with each other.  Since a location is never expanded
+// twice, the heuristic functions must be consistent, not just admissible:
+// the forward heuristic value of a location must never exceed the cost of
+// a road leading out of it plus the forward heuristic value at the end of
+// that road, and the backward heuristic value of a location must never
+// exceed the cost of a road leading into it plus the backward heuristic
+// value at the start of that road.  (On maps in which every road has a twin
+// of equal cost going the other way, the same kind of heuristic function
+// can serve in both roles, with its destination set to the initial location
+// for the backward search.)  Repeated state checking is always done, and a
+// location is never expanded twice by the same search.  The number of node
+// expansions performed by each search is recorded, along with their sum,
+// and more detailed measurements of the most recent search are kept in
+// "statistics".
+//
+// Created Sat Oct 17 15:03:38 PDT 2026
+// Modified Sat Oct 17 20:58:05 PDT 2026
+//   (Recorded search statistics.)
+// Modified Sun Oct 18 08:01:37 PDT 2026
+//   (Required the heuristic functions to be consistent.)
+// Modified Sun Oct 18 09:36:12 PDT 2026
+//   (Recorded whether a limit was reached.)
+//
+
+
+import java.util.*;
+
+
+public class BidirectionalSearch {
+    Map graph;
+    String initialLoc;
+    String destinationLoc;
+    int limit;
+    Heuristic forwardHeuristic = null;
+    Heuristic backwardHeuristic = null;
+    public int expansionCount = 0;
+    public boolean limitReached = false;   // true if the last search hit it
+    public int forwardExpansionCount = 0;
+    public int backwardExpansionCount = 0;
+    public SearchStatistics statistics
+	= new SearchStatistics("bidirectional");
+
+    // Constructor with the map, the initial and destination location names,
+    // and the depth limit specified ...
+    public BidirectionalSearch(Map graph, String initialLoc,
+			       String destinationLoc, int limit) {
+	this.graph = graph;
+	this.initialLoc = initialLoc;
+	this.destinationLoc = destinationLoc;
+	this.limit = limit;
+    }
+
+    // setHeuristics -- Use the given heuristic functions to guide the
+    // forward and backward searches, turning the search into bidirectional
+    // A* search.  The destinations of the heuristic functions are set at
+    // the start of each search, to the destination location for the
+    // forward heuristic function and to the initial location for the
+    // backward heuristic function.  Passing null for both arguments
+    // restores bidirectional uniform-cost search.
+    public void setHeuristics(Heuristic forward, Heuristic backward) {
+	this.forwardHeuristic = forward;
+	this.backwardHeuristic = backward;
+    }
+
+    // search -- Search for a shortest path from the initial location to the
+    // destination location.  Return the Waypoint at the end of the solution
+    // path, or null if no solution is found or if the depth limit is
+    // reached by either search.
+    public Waypoint search() {
+	statistics.start(initialLoc, destinationLoc);
+	Waypoint solution = find();
+	statistics.expansionCount = expansionCount;
+	statistics.stop(solution);
+	return (solution);
+    }
+
+    // find -- Perform the search, as described for the "search" method.
+    Waypoint find() {
+	expansionCount = 0;
+	limitReached = false;
+	forwardExpansionCount = 0;
+	backwardExpansionCount = 0;
+	Location start = graph.findLocation(initialLoc);
+	Location goal = graph.findLocation(destinationLoc);
+	if ((start == null) || (goal == null))
+	    return (null);
+	CompactMap forward = graph.compact();
+	CompactMap backward = graph.reverseCompact();
+	int n = forward.locationCount();
+	if (forwardHeuristic != null)
+	    forwardHeuristic.setDestination(goal);
+	if (backwardHeuristic != null)
+	    backwardHeuristic.setDestination(start);
+	double[] potential = new double[n];   // forward potential, or NaN
+	Arrays.fill(potential, Double.NaN);
+	// Per-direction search state, indexed by location id ...
+	double[] costF = new double[n];
+	double[] costB = new double[n];
+	int[] previousF = new int[n];   // next location toward the start
+	int[] previousB = new int[n];   // next location toward the goal
+	int[] depthF = new int[n];
+	int[] depthB = new int[n];
+	boolean[] expandedF = new boolean[n];
+	boolean[] expandedB = new boolean[n];
+	Arrays.fill(costF, Double.POSITIVE_INFINITY);
+	Arrays.fill(costB, Double.POSITIVE_INFINITY);
+	IndexedHeap frontierF = new IndexedHeap(n);
+	IndexedHeap frontierB = new IndexedHeap(n);
+	costF[start.id] = 0.0;
+	previousF[start.id] = -1;
+	frontierF.insert(start.id, potential(potential, start.id, forward));
+	costB[goal.id] = 0.0;
+	previousB[goal.id] = -1;
+	frontierB.insert(goal.id, -potential(potential, goal.id, forward));
+	statistics.generatedCount += 2;
+	statistics.noteFrontierSize(2);
+	double best = Double.POSITIVE_INFINITY;   // cost of best path so far
+	int meeting = -1;                         // where that path meets
+	if (start.id == goal.id) {
+	    best = 0.0;
+	    meeting = start.id;
+	}
+	while (!(frontierF.isEmpty()) && !(frontierB.isEmpty())) {
+	    if (frontierF.peekKey() + frontierB.peekKey() >= best)
+		// No shorter path can be found ...
+		break;
+	    boolean isForward = (frontierF.peekKey() <= frontierB.peekKey());
+	    IndexedHeap frontier = isForward ? frontierF : frontierB;
+	    CompactMap roads = isForward ? forward : backward;
+	    double[] cost = isForward ? costF : costB;
+	    double[] otherCost = isForward ? costB : costF;
+	    int[] previous = isForward ? previousF : previousB;
+	    int[] depth = isForward ? depthF : depthB;
+	    boolean[] expanded = isForward ? expandedF : expandedB;
+	    double sign = isForward ? 1.0 : -1.0;
+	    int loc = frontier.removeMin();
+	    if (depth[loc] >= limit) {
+		// The depth limit has been reached ...
+		limitReached = true;
+		return (null);
+	    }
+	    expanded[loc] = true;
+	    expansionCount++;
+	    if (isForward)
+		forwardExpansionCount++;
+	    else
+		backwardExpansionCount++;
+	    int lastRoad = roads.firstRoad[loc + 1];
+	    for (int r = roads.firstRoad[loc]; r < lastRoad; r++) {
+		int child = roads.roadTarget[r];
+		if (expanded[child]) {
+		    statistics.pruneCount++;
+		    continue;
+		}
+		double g = cost[loc] + roads.roadCost[r];
+		if (g >= cost[child]) {
+		    statistics.pruneCount++;
+		} else {
+		    cost[child] = g;
+		    previous[child] = loc;
+		    depth[child] = depth[loc] + 1;
+		    double p = sign * potential(potential, child, forward);
+		    frontier.insert(child, g + p);
+		    statistics.generatedCount++;
+		    statistics.noteFrontierSize(frontierF.size()
+						+ frontierB.size());
+		    if (g + otherCost[child] < best) {
+			// A shorter path through this location is known ...
+			best = g + otherCost[child];
+			meeting = child;
+		    }
+		}
+	    }
+	}
+	if (meeting < 0)
+	    return (null);
+	// Assemble the path, from the start through the meeting location to
+	// the goal ...
+	int length = depthF[meeting] + depthB[meeting] + 1;
+	int[] path = new int[length];
+	int loc = meeting;
+	for (int i = depthF[meeting]; i >= 0; i--) {
+	    path[i] = loc;
+	    loc = previousF[loc];
+	}
+	loc = meeting;
+	for (int i = depthF[meeting]; i < length; i++) {
+	    path[i] = loc;
+	    loc = previousB[loc];
+	}
+	return (forward.toWaypoint(path, length));
+    }
+
+    // potential -- Return the forward potential of the location with the
+    // given id, which is half of the difference between its forward and
+    // backward heuristic values, computing it only the first time that it
+    // is needed.  The backward potential of a location is the negation of
+    // its forward potential.  Without heuristic functions, all potentials
+    // are zero.
+    double potential(double[] potential, int loc, CompactMap map) {
+	if (Double.isNaN(potential[loc])) {
+	    double hF = 0.0;
+	    double hB = 0.0;
+	    if (forwardHeuristic != null) {
+		hF = forwardHeuristic.heuristicFunction(map.locations[loc]);
+		statistics.heuristicCount++;
+	    }
+	    if (backwardHeuristic != null) {
+		hB = backwardHeuristic.heuristicFunction(map.locations[loc]);
+		statistics.heuristicCount++;
+	    }
+	    potential[loc] = 0.5 * (hF - hB);
+	}
+	return (potential[loc]);
+    }
+
+}
+
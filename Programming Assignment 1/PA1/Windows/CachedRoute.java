@@ -0,0 +1,62 @@
+//
+// CachedRoute
+//
+// This class holds a single search result kept by a RouteCache.  The path
+// is stored compactly, as an array of location ids from the initial
+// location to the destination, along with the partial path cost at each of
+// them and the version of the map for which it holds.  A query with no
+// solution is stored with no path and an infinite cost.  The path is made
+// into a chain of Waypoint objects again only when it is used, with the
+// costs that were stored, so that it is exactly the path that was found,
+// even when more than one road joins a pair of its locations.
+//
+// Created Sun Oct 18 07:21:48 PDT 2026
+// Modified Sun Oct 18 10:18:05 PDT 2026
+//   (Kept the cost of each step of the path.)
+//
+
+
+public class CachedRoute {
+    final int[] path;      // location ids from start to end, or null
+    final double[] costs;  // partial path cost at each location, or null
+    final double cost;     // path cost, or infinity if there is no path
+    final long version;    // map version for which the result holds
+
+    // Constructor with the solution and map version specified ...
+    CachedRoute(Waypoint solution, long version) {
+	this.version = version;
+	if (solution == null) {
+	    this.path = null;
+	    this.costs = null;
+	    this.cost = Double.POSITIVE_INFINITY;
+	} else {
+	    this.path = new int[solution.depth + 1];
+	    this.costs = new double[solution.depth + 1];
+	    for (Waypoint wp = solution; wp != null; wp = wp.previous) {
+		this.path[wp.depth] = wp.loc.id;
+		this.costs[wp.depth] = wp.partialPathCost;
+	    }
+	    this.cost = solution.partialPathCost;
+	}
+    }
+
+    // toWaypoint -- Return the Waypoint at the end of the cached path, with
+    // Waypoint objects for the rest of the path linked to it, or null if
+    // there is no path.  Only the locations of the given compact form of
+    // the map are used.
+    Waypoint toWaypoint(CompactMap graph) {
+	if (path == null)
+	    return (null);
+	Waypoint wp = null;
+	for (int i = 0; i < path.length; i++) {
+	    wp = new Waypoint(graph.locations[path[i]], wp);
+	    wp.depth = i;
+	    wp.partialPathCost = costs[i];
+	}
+	return (wp);
+    }
+
+
+
+}
+
@@ -0,0 +1,57 @@
+//
+// ClosedSetPolicy
+//
+// This interface is implemented by the structures that a SearchKernel uses
+// for repeated state checking, recording which locations have already been
+// expanded (the "closed list"), which search tree node, if any, is in the
+// frontier for each location, and the cheapest partial path cost found for
+// each location.  Locations are identified by their ids on the compact form
+// of the map being searched, so nothing is boxed and no names are hashed.
+// Three policies are provided:  one that records nothing, so that no
+// successors are ever pruned, as in a search without repeated state
+// checking, one that records everything in arrays indexed by location id,
+// which are kept from one search to the next so that they need not be
+// allocated again, but which must be cleared in full before each search,
+// and one that records only the locations reached by the search, in an
+// open addressing hash table of primitive arrays, so that the time and
+// memory used by each search depend on how much of the map it explores,
+// not on the size of the map.  These are the NoClosedSet, ArrayClosedSet,
+// and HashClosedSet classes.
+//
+// Created Sun Oct 18 02:16:45 PDT 2026
+// Modified Sun Oct 18 03:48:26 PDT 2026
+//   (Recorded the cheapest partial path costs, and added HashClosedSet.)
+// Modified Sun Oct 18 07:36:50 PDT 2026
+//   (Moved the policies into their own files.)
+//
+
+
+public interface ClosedSetPolicy {
+
+    // start -- Forget every location, before a search of a map with the
+    // given number of locations.
+    void start(int locationCount);
+
+    // isClosed -- Return true if and only if the location with the given
+    // id has already been expanded.
+    boolean isClosed(int loc);
+
+    // close -- Record that the location with the given id has been
+    // expanded, so that it no longer has a node in the frontier.
+    void close(int loc);
+
+    // frontierNode -- Return the search tree node in the frontier for the
+    // location with the given id, or -1 if there is none.
+    int frontierNode(int loc);
+
+    // setFrontierNode -- Record that the given search tree node is in the
+    // frontier for the location with the given id.
+    void setFrontierNode(int loc, int node);
+
+    // improve -- Return true if and only if the given partial path cost is
+    // less than the cheapest one recorded for the location with the given
+    // id, if any, recording the given cost as the cheapest if so.
+    boolean improve(int loc, double cost);
+
+}
+
@@ -0,0 +1,27 @@
+//
+// DFSearch
+//
+// This class implements depth-first search for a path from one location on
+// a map to another, expanding the most recently generated node first.  It
+// is the SearchKernel with a LIFO frontier, so, with repeated state
+// checking, only the first path found to each location is kept.  Without
+// repeated state checking, the search may follow a cycle until the depth
+// limit is reached.  The number of node expansions performed by the most
+// recent search is kept in "expansionCount".
+//
+// Created Sun Oct 18 02:16:45 PDT 2026
+//
+
+
+public class DFSearch extends SearchKernel {
+
+    // Constructor with the map, the initial and destination location names,
+    // and the depth limit specified ...
+    public DFSearch(Map graph, String initialLoc, String destinationLoc,
+		    int limit) {
+	super(graph, initialLoc, destinationLoc, limit,
+	      new LifoPolicy(), "dfs");
+    }
+
+}
+
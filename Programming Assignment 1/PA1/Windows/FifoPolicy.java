@@ -0,0 +1,67 @@
+//
+// FifoPolicy
+//
+// This class implements a FrontierPolicy that expands search tree nodes in
+// the order in which they were generated, giving breadth-first search.  The
+// nodes are held in a circular array, whose length is always a power of
+// two, and which doubles in size when it is full.  Nodes keep their places
+// in line, so they are never replaced.
+//
+// Created Sun Oct 18 07:29:05 PDT 2026
+//
+
+
+public class FifoPolicy implements FrontierPolicy {
+    int[] queue = new int[64];
+    int head = 0;
+    int size = 0;
+
+    // clear -- Remove every node, before a search of the given tree.
+    public void clear(SearchTree tree) {
+	head = 0;
+	size = 0;
+    }
+
+    // isEmpty -- Return true if there are no nodes in the frontier.
+    public boolean isEmpty() {
+	return (size == 0);
+    }
+
+    // size -- Return the number of nodes in the frontier.
+    public int size() {
+	return (size);
+    }
+
+    // insert -- Add the given node at the back of the queue.
+    public void insert(int node) {
+	if (size == queue.length) {
+	    // Unroll the circular array into one twice as large ...
+	    int[] larger = new int[2 * size];
+	    for (int i = 0; i < size; i++)
+		larger[i] = queue[(head + i) & (queue.length - 1)];
+	    queue = larger;
+	    head = 0;
+	}
+	queue[(head + size) & (queue.length - 1)] = node;
+	size++;
+    }
+
+    // removeNext -- Remove and return the node at the front of the queue.
+    public int removeNext() {
+	int node = queue[head];
+	head = (head + 1) & (queue.length - 1);
+	size--;
+	return (node);
+    }
+
+    // canReplace -- Return false, since nodes keep their places in line.
+    public boolean canReplace() {
+	return (false);
+    }
+
+    // remove -- Do nothing, since nodes are never replaced.
+    public void remove(int node) {
+    }
+
+}
+
@@ -0,0 +1,59 @@
+//
+// FrontierPolicy
+//
+// This interface is implemented by the frontiers used by a SearchKernel,
+// each of which decides the order in which the nodes of a SearchTree are
+// expanded.  Nodes are identified by their ids in the tree, so a frontier
+// holds nothing but primitive integers.  Three policies are provided:  a
+// FIFO queue, giving breadth-first search, a LIFO stack, giving depth-first
+// search, and a priority queue ordered by partial path cost, by heuristic
+// value, or by the sum of the partial path cost and the heuristic value,
+// with the heuristic value optionally weighted, giving uniform-cost, greedy,
+// A*, and weighted A* search.  These are the FifoPolicy, LifoPolicy, and
+// PriorityPolicy classes.  Ties in the priority queue are broken just as
+// the WaypointComparator of a SortedFrontier breaks them, so that nodes are
+// expanded in the same order as they would be using that frontier.  Only a
+// frontier that can replace a node with a cheaper one for the same
+// location, as the priority queue can, has such nodes replaced during
+// repeated state checking; the others simply keep the first node generated
+// for each location.  A frontier is cleared at the start of each search, so
+// one may be reused for many searches.
+//
+// Created Sun Oct 18 02:16:45 PDT 2026
+// Modified Sun Oct 18 05:02:40 PDT 2026
+//   (Broke ties by location name and then by parent.)
+// Modified Sun Oct 18 07:29:05 PDT 2026
+//   (Moved the policies into their own files.)
+//
+
+
+public interface FrontierPolicy {
+
+    // clear -- Remove every node from the frontier, before a search that
+    // will add nodes of the given search tree.
+    void clear(SearchTree tree);
+
+    // isEmpty -- Return true if and only if there are no nodes in the
+    // frontier.
+    boolean isEmpty();
+
+    // size -- Return the number of nodes in the frontier.
+    int size();
+
+    // insert -- Add the given search tree node to the frontier.
+    void insert(int node);
+
+    // removeNext -- Remove and return the node to be expanded next.  The
+    // frontier must not be empty.
+    int removeNext();
+
+    // canReplace -- Return true if and only if a node in the frontier can
+    // be removed, to be replaced by a cheaper node for the same location.
+    boolean canReplace();
+
+    // remove -- Remove the given node from the frontier, if it is there.
+    // This is only used if the frontier can replace nodes.
+    void remove(int node);
+
+}
+
@@ -0,0 +1,27 @@
+//
+// GreedySearch
+//
+// This class implements greedy best-first search for a path from one
+// location on a map to another, expanding the node with the lowest
+// heuristic value first.  It is a BestFirstSearch sorting by heuristic
+// value, and the search itself, with or without repeated state checking,
+// is performed by the SearchKernel.  The heuristic function is a
+// GoodHeuristic until another is provided.  The number of node expansions
+// performed by the most recent search is kept in "expansionCount".
+//
+// Created Sun Oct 18 02:16:45 PDT 2026
+//
+
+
+public class GreedySearch extends BestFirstSearch {
+
+    // Constructor with the map, the initial and destination location names,
+    // and the depth limit specified ...
+    public GreedySearch(Map graph, String initialLoc, String destinationLoc,
+			int limit) {
+	super(graph, initialLoc, destinationLoc, limit, SortBy.h);
+	setHeuristic(new GoodHeuristic());
+    }
+
+}
+
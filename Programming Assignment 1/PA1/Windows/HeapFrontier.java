@@ -0,0 +1,333 @@
+//
+// HeapFrontier
+//
+// This class implements a priority queue of Waypoint objects that provides
+// the same interface as the SortedFrontier class, but which is backed by an
+// indexed d-ary heap of primitive double precision keys (an IndexedHeap)
+// rather than by a balanced tree of Waypoint objects.  As with SortedFrontier,
+// the contents can be sorted by partial path cost, by heuristic value, or by
+// the sum of these two statistics, with the strategy determined at the time
+// that the priority queue is created.  The contained object with the lowest
+// value is the first to be removed.  Ties are broken in favor of the
+// Waypoint that was added to the frontier first, which is not the way in
+// which SortedFrontier breaks them, so the two classes may expand nodes of
+// equal value in different orders.
+//
+// Each Waypoint in the frontier occupies an "entry", identified by a small
+// integer, and it is these entry identifiers that are kept in the heap.
+// Entries are indexed by location name, with multiple entries for the same
+// location (which arise when repeated state checking is not being done)
+// chained together.  This allows the "contains" and "find" methods to answer
+// in constant time, and it allows a given Waypoint to be removed, or replaced
+// by a better Waypoint for the same location, in logarithmic time.  As in
+// the Frontier class, the index is a hash table using open addressing with
+// linear probing, over an array of names and a parallel array of primitive
+// entry identifiers, so no entry identifier is ever boxed.
+//
+// Created Sat Oct 17 10:31:52 PDT 2026
+// Modified Sun Oct 18 10:24:37 PDT 2026
+//   (Broke ties by order of insertion, and indexed entries without boxing.)
+//
+
+
+import java.util.*;
+
+
+// EntryHeap is an IndexedHeap of HeapFrontier entries in which entries with
+// equal keys are ordered by the insertion numbers that the frontier gave
+// them ...
+class EntryHeap extends IndexedHeap {
+    HeapFrontier frontier;
+
+    // Constructor with the frontier that holds the heap and the initial
+    // capacity specified ...
+    EntryHeap(HeapFrontier frontier, int capacity) {
+	super(capacity);
+	this.frontier = frontier;
+    }
+
+    // before -- Return true if and only if the first entry should be
+    // removed from the heap before the second.
+    boolean before(int a, int b) {
+	double ka = key[a];
+	double kb = key[b];
+	if (ka != kb)
+	    return (ka < kb);
+	return (frontier.insertion[a] < frontier.insertion[b]);
+    }
+
+}
+
+
+public class HeapFrontier {
+    SortBy sortingStrategy;
+    IndexedHeap heap;
+    Waypoint[] entries;                  // entry -> Waypoint, or null
+    int[] nextEntry;                     // entry -> next entry, same location
+    int[] freeEntries;                   // stack of unused entries
+    long[] insertion;                    // entry -> insertion number
+    int freeCount = 0;
+    int entryCount = 0;                  // entries ever allocated
+    long insertionCount = 0;             // Waypoints ever inserted
+    String[] indexedNames;    // hash slot -> location name, or null
+    int[] firstEntries;       // hash slot -> first entry at that location
+    int indexedCount = 0;     // number of location names in the table
+
+    // Default constructor ...
+    public HeapFrontier() {
+	this(SortBy.g);
+    }
+
+    // Constructor with sorting strategy specified ...
+    public HeapFrontier(SortBy strategy) {
+	this.sortingStrategy = strategy;
+	this.heap = new EntryHeap(this, 64);
+	this.entries = new Waypoint[64];
+	this.nextEntry = new int[64];
+	this.freeEntries = new int[64];
+	this.insertion = new long[64];
+	this.indexedNames = new String[16];
+	this.firstEntries = new int[16];
+    }
+
+    // isEmpty -- Return true if and only if there are currently no nodes in
+    // the frontier.
+    public boolean isEmpty() {
+	return (heap.isEmpty());
+    }
+
+    // size -- Return the number of nodes currently in the frontier.
+    public int size() {
+	return (heap.size());
+    }
+
+    // removeTop -- Return the Waypoint object at the top of the frontier
+    // list.  Also, remove this node from the frontier.  Return null if the
+    // frontier is empty.
+    public Waypoint removeTop() {
+	if (heap.isEmpty()) {
+	    return (null);
+	} else {
+	    int e = heap.removeMin();
+	    Waypoint top = entries[e];
+	    releaseEntry(e);
+	    return (top);
+	}
+    }
+
+    // addSorted -- Add the given Waypoint object to the frontier in the
+    // appropriate position, given its sorting statistics.
+    public void addSorted(Waypoint wp) {
+	int e = allocateEntry();
+	entries[e] = wp;
+	insertion[e] = insertionCount++;
+	String name = wp.loc.name;
+	int s = slot(name);
+	if (indexedNames[s] == null) {
+	    if (2 * (indexedCount + 1) > indexedNames.length) {
+		grow();
+		s = slot(name);
+	    }
+	    indexedNames[s] = name;
+	    indexedCount++;
+	    nextEntry[e] = -1;
+	} else {
+	    nextEntry[e] = firstEntries[s];
+	}
+	firstEntries[s] = e;
+	heap.insert(e, sortingValue(wp));
+    }
+
+    // addSorted -- Add the given list of Waypoint objects to the frontier
+    // in the appropriate positions, given their sorting statistics.
+    public void addSorted(List<Waypoint> points) {
+	for (Waypoint wp : points) {
+	    addSorted(wp);
+	}
+    }
+
+    // remove -- Remove a specified Waypoint object from the frontier.
+    public void remove(Waypoint wp) {
+	int e = findEntry(wp);
+	if (e >= 0) {
+	    heap.remove(e);
+	    releaseEntry(e);
+	}
+    }
+
+    // remove -- Remove all of the Waypoint objects in the given list from
+    // the frontier.
+    public void remove(List<Waypoint> points) {
+	for (Waypoint wp : points) {
+	    remove(wp);
+	}
+    }
+
+    // replace -- Replace the first given Waypoint object in the frontier
+    // with the second, which should be for the same location, repositioning
+    // it according to its sorting statistics.  This is the "decrease key"
+    // operation needed when a better path to a location in the frontier is
+    // found.  If the first Waypoint is not in the frontier, the second is
+    // simply added.  The new Waypoint keeps the place of the old one among
+    // Waypoints of equal value.
+    public void replace(Waypoint oldWp, Waypoint newWp) {
+	int e = findEntry(oldWp);
+	if ((e < 0) || !(oldWp.loc.name.equals(newWp.loc.name))) {
+	    remove(oldWp);
+	    addSorted(newWp);
+	} else {
+	    entries[e] = newWp;
+	    heap.update(e, sortingValue(newWp));
+	}
+    }
+
+    // contains -- Return true if and only if the frontier contains a
+    // Waypoint with the given Location name.
+    public boolean contains(String name) {
+	return (indexedNames[slot(name)] != null);
+    }
+
+    // contains -- Return true if and only if the frontier contains a
+    // Waypoint with the given Location object as its state.
+    public boolean contains(Location loc) {
+	return (contains(loc.name));
+    }
+
+    // contains -- Return true if and only if the frontier contains an
+    // equivalent Waypoint (with regard to the Location) to the one provided
+    // as an argument.
+    public boolean contains(Waypoint wp) {
+	return (contains(wp.loc));
+    }
+
+    // find -- Return a Waypoint in the frontier with the given location
+    // name, or null if there is no such Waypoint.
+    public Waypoint find(String name) {
+	int s = slot(name);
+	if (indexedNames[s] == null)
+	    return (null);
+	return (entries[firstEntries[s]]);
+    }
+
+    // find -- Return a Waypoint in the frontier with the given location
+    // name, or null if there is no such Waypoint.
+    public Waypoint find(Location loc) {
+	return (find(loc.name));
+    }
+
+    // find -- Return a Waypoint in the frontier with the same location
+    // name as the provided Waypoint, or null if there is no such Waypoint.
+    public Waypoint find(Waypoint wp) {
+	return (find(wp.loc));
+    }
+
+    // sortingValue -- Return the statistic of the given Waypoint that
+    // determines its position in the frontier.
+    double sortingValue(Waypoint wp) {
+	switch (sortingStrategy) {
+	case h:
+	    return (wp.heuristicValue);
+	case f:
+	    return (wp.partialPathCost + wp.heuristicValue);
+	default:
+	    return (wp.partialPathCost);
+	}
+    }
+
+    // findEntry -- Return the entry holding exactly the given Waypoint
+    // object, or -1 if it is not in the frontier.
+    int findEntry(Waypoint wp) {
+	int s = slot(wp.loc.name);
+	if (indexedNames[s] == null)
+	    return (-1);
+	for (int e = firstEntries[s]; e >= 0; e = nextEntry[e]) {
+	    if (entries[e] == wp)
+		return (e);
+	}
+	return (-1);
+    }
+
+    // allocateEntry -- Return an unused entry, growing the entry arrays if
+    // necessary.
+    int allocateEntry() {
+	if (freeCount > 0) {
+	    freeCount--;
+	    return (freeEntries[freeCount]);
+	}
+	if (entryCount == entries.length) {
+	    int capacity = 2 * entries.length;
+	    entries = Arrays.copyOf(entries, capacity);
+	    nextEntry = Arrays.copyOf(nextEntry, capacity);
+	    freeEntries = Arrays.copyOf(freeEntries, capacity);
+	    insertion = Arrays.copyOf(insertion, capacity);
+	}
+	return (entryCount++);
+    }
+
+    // releaseEntry -- Unlink the given entry, which has already been taken
+    // out of the heap, from the location index, and make it available for
+    // reuse.
+    void releaseEntry(int e) {
+	int s = slot(entries[e].loc.name);
+	if (firstEntries[s] == e) {
+	    if (nextEntry[e] < 0)
+		vacate(s);
+	    else
+		firstEntries[s] = nextEntry[e];
+	} else {
+	    int prev = firstEntries[s];
+	    while (nextEntry[prev] != e)
+		prev = nextEntry[prev];
+	    nextEntry[prev] = nextEntry[e];
+	}
+	entries[e] = null;
+	freeEntries[freeCount++] = e;
+    }
+
+    // slot -- Return the hash slot holding the given location name, or the
+    // empty slot at which it would be added.
+    int slot(String name) {
+	int mask = indexedNames.length - 1;
+	int s = Frontier.home(name, mask);
+	while ((indexedNames[s] != null) && !(indexedNames[s].equals(name)))
+	    s = (s + 1) & mask;
+	return (s);
+    }
+
+    // vacate -- Empty the given hash slot, moving back any later names in
+    // the same run of occupied slots that could no longer be found.
+    void vacate(int s) {
+	int mask = indexedNames.length - 1;
+	indexedNames[s] = null;
+	indexedCount--;
+	for (int t = (s + 1) & mask; indexedNames[t] != null;
+	     t = (t + 1) & mask) {
+	    // A name may fill the empty slot only if that slot lies between
+	    // the name's home slot and its current slot ...
+	    int h = Frontier.home(indexedNames[t], mask);
+	    if (((t - h) & mask) >= ((t - s) & mask)) {
+		indexedNames[s] = indexedNames[t];
+		firstEntries[s] = firstEntries[t];
+		indexedNames[t] = null;
+		s = t;
+	    }
+	}
+    }
+
+    // grow -- Move every location name into a table twice as large.
+    void grow() {
+	String[] oldNames = indexedNames;
+	int[] oldFirst = firstEntries;
+	indexedNames = new String[2 * oldNames.length];
+	firstEntries = new int[2 * oldNames.length];
+	for (int i = 0; i < oldNames.length; i++) {
+	    if (oldNames[i] != null) {
+		int s = slot(oldNames[i]);
+		indexedNames[s] = oldNames[i];
+		firstEntries[s] = oldFirst[i];
+	    }
+	}
+    }
+
+}
+
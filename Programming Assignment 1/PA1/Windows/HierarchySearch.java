@@ -0,0 +1,238 @@
+//
+// HierarchySearch
+//
+// This class implements the query engine for a ContractionHierarchy.  To
+// find a shortest path from one location to another, a forward search from
+// the initial location and a backward search from the destination location
+// are interleaved, with each only following edges of the hierarchy that
+// lead to locations of higher rank.  The two searches meet at the highest
+// ranked location on a shortest path, and each search stops once its
+// frontier holds nothing cheaper than the best path found through a
+// meeting location.  Since every search climbs the hierarchy, only a few
+// hundred locations are typically expanded, even on very large maps.  The
+// edges of the solution are then unpacked into the original roads, and the
+// solution is returned as a Waypoint, so that it can be reported in the
+// usual way.
+//
+// A HierarchySearch object holds the working storage for searches, indexed
+// by location id, and this storage is reused by every search; only the
+// entries touched by the previous search are reset.  Thus, a single object
+// should be reused for many queries, but it must not be used by more than
+// one thread at a time.  Many HierarchySearch objects may share the same
+// ContractionHierarchy.  The number of node expansions performed by the
+// most recent search, in both directions, is kept in "expansionCount", and
+// more detailed measurements of it are kept in "statistics".  A hierarchy
+// that was made before the most recent change to its map is not searched,
+// since its shortcuts may no longer be shortest paths.
+//
+// Created Sat Oct 17 16:40:51 PDT 2026
+// Modified Sat Oct 17 20:58:05 PDT 2026
+//   (Recorded search statistics.)
+// Modified Sun Oct 18 04:31:12 PDT 2026
+//   (Refused to search an out-of-date hierarchy.)
+//
+
+
+import java.util.*;
+
+
+public class HierarchySearch {
+    ContractionHierarchy hierarchy;
+    double[] costF;          // location -> cost from the initial location
+    double[] costB;          // location -> cost to the destination location
+    int[] edgeF;             // location -> hierarchy edge reaching it, or -1
+    int[] edgeB;             // location -> hierarchy edge leaving it, or -1
+    IndexedHeap frontierF;
+    IndexedHeap frontierB;
+    int[] touched;           // locations whose entries must be reset
+    int touchedCount = 0;
+    boolean[] isTouched;
+    double solutionCost = Double.POSITIVE_INFINITY;
+    public int expansionCount = 0;
+    public SearchStatistics statistics = new SearchStatistics("hierarchy");
+
+    // Constructor with the hierarchy to be searched specified ...
+    public HierarchySearch(ContractionHierarchy hierarchy) {
+	int n = hierarchy.rank.length;
+	this.hierarchy = hierarchy;
+	this.costF = new double[n];
+	this.costB = new double[n];
+	this.edgeF = new int[n];
+	this.edgeB = new int[n];
+	this.frontierF = new IndexedHeap(n);
+	this.frontierB = new IndexedHeap(n);
+	this.touched = new int[n];
+	this.isTouched = new boolean[n];
+	Arrays.fill(this.costF, Double.POSITIVE_INFINITY);
+	Arrays.fill(this.costB, Double.POSITIVE_INFINITY);
+	Arrays.fill(this.edgeF, -1);
+	Arrays.fill(this.edgeB, -1);
+    }
+
+    // search -- Search for a shortest path from the location with the first
+    // given name to the location with the second given name.  Return the
+    // Waypoint at the end of the solution path, or null if either location
+    // is unknown, if the hierarchy is out of date, or if no solution is
+    // found.
+    public Waypoint search(String initialLoc, String destinationLoc) {
+	statistics.start(initialLoc, destinationLoc);
+	Location start = hierarchy.map.findLocation(initialLoc);
+	Location goal = hierarchy.map.findLocation(destinationLoc);
+	Waypoint solution = null;
+	if ((start != null) && (goal != null))
+	    solution = find(start.id, goal.id);
+	statistics.stop(solution);
+	return (solution);
+    }
+
+    // search -- Search for a shortest path from the location with the first
+    // given id to the location with the second given id.  Return the
+    // Waypoint at the end of the solution path, or null if the hierarchy is
+    // out of date or if no solution is found.
+    public Waypoint search(int start, int goal) {
+	statistics.start(hierarchy.graph.locations[start].name,
+			 hierarchy.graph.locations[goal].name);
+	Waypoint solution = find(start, goal);
+	statistics.stop(solution);
+	return (solution);
+    }
+
+    // find -- Perform the search, as described for the "search" method.
+    Waypoint find(int start, int goal) {
+	if (!(hierarchy.isCurrent())) {
+	    System.err.println("The contraction hierarchy is out of date.");
+	    return (null);
+	}
+	int meeting = findMeeting(start, goal);
+	if (meeting < 0)
+	    return (null);
+	// Collect the hierarchy edges from the start up to the meeting
+	// location, and from there down to the goal ...
+	int up = 0;
+	for (int loc = meeting; edgeF[loc] >= 0;
+	     loc = hierarchy.edgeFrom[edgeF[loc]])
+	    up++;
+	int down = 0;
+	for (int loc = meeting; edgeB[loc] >= 0;
+	     loc = hierarchy.edgeTo[edgeB[loc]])
+	    down++;
+	int[] edges = new int[up + down];
+	int i = up;
+	for (int loc = meeting; edgeF[loc] >= 0;
+	     loc = hierarchy.edgeFrom[edgeF[loc]])
+	    edges[--i] = edgeF[loc];
+	i = up;
+	for (int loc = meeting; edgeB[loc] >= 0;
+	     loc = hierarchy.edgeTo[edgeB[loc]])
+	    edges[i++] = edgeB[loc];
+	// Unpack the shortcuts into a sequence of locations ...
+	int length = 1;
+	for (int e : edges)
+	    length += hierarchy.roadCount(e);
+	int[] path = new int[length];
+	path[0] = start;
+	length = 1;
+	for (int e : edges)
+	    length = hierarchy.unpack(e, path, length);
+	return (hierarchy.graph.toWaypoint(path, length));
+    }
+
+    // cost -- Return the cost of a shortest path from the location with the
+    // first given id to the location with the second given id, positive
+    // infinity if there is no such path, or NaN if the hierarchy is out of
+    // date.  This avoids unpacking the path.
+    public double cost(int start, int goal) {
+	statistics.start(hierarchy.graph.locations[start].name,
+			 hierarchy.graph.locations[goal].name);
+	if (!(hierarchy.isCurrent()))
+	    solutionCost = Double.NaN;
+	else if (findMeeting(start, goal) < 0)
+	    solutionCost = Double.POSITIVE_INFINITY;
+	statistics.stop(solutionCost);
+	return (solutionCost);
+    }
+
+    // findMeeting -- Perform the two searches, returning the location at
+    // which the best path found meets, or -1 if there is no path.  The cost
+    // of the best path is recorded in "solutionCost".
+    int findMeeting(int start, int goal) {
+	reset();
+	expansionCount = 0;
+	touch(start);
+	costF[start] = 0.0;
+	frontierF.insert(start, 0.0);
+	touch(goal);
+	costB[goal] = 0.0;
+	frontierB.insert(goal, 0.0);
+	statistics.generatedCount += 2;
+	statistics.noteFrontierSize(2);
+	double best = Double.POSITIVE_INFINITY;
+	int meeting = -1;
+	while (true) {
+	    boolean moreF = (frontierF.peekKey() < best);
+	    boolean moreB = (frontierB.peekKey() < best);
+	    if (!moreF && !moreB)
+		break;
+	    boolean isForward = moreF
+		&& (!moreB || (frontierF.peekKey() <= frontierB.peekKey()));
+	    IndexedHeap frontier = isForward ? frontierF : frontierB;
+	    double[] cost = isForward ? costF : costB;
+	    double[] otherCost = isForward ? costB : costF;
+	    int[] edge = isForward ? edgeF : edgeB;
+	    int[] first = isForward ? hierarchy.firstUp : hierarchy.firstDown;
+	    int[] edges = isForward ? hierarchy.upEdge : hierarchy.downEdge;
+	    int[] ends = isForward ? hierarchy.edgeTo : hierarchy.edgeFrom;
+	    int loc = frontier.removeMin();
+	    expansionCount++;
+	    if (cost[loc] + otherCost[loc] < best) {
+		best = cost[loc] + otherCost[loc];
+		meeting = loc;
+	    }
+	    for (int k = first[loc]; k < first[loc + 1]; k++) {
+		int e = edges[k];
+		int next = ends[e];
+		double c = cost[loc] + hierarchy.edgeCost[e];
+		if (c < cost[next]) {
+		    touch(next);
+		    cost[next] = c;
+		    edge[next] = e;
+		    frontier.insert(next, c);
+		    statistics.generatedCount++;
+		    statistics.noteFrontierSize(frontierF.size()
+						+ frontierB.size());
+		} else {
+		    statistics.pruneCount++;
+		}
+	    }
+	}
+	solutionCost = best;
+	statistics.expansionCount = expansionCount;
+	return (meeting);
+    }
+
+    // touch -- Note that the entries for the given location must be reset
+    // before the next search.
+    void touch(int loc) {
+	if (!(isTouched[loc])) {
+	    isTouched[loc] = true;
+	    touched[touchedCount++] = loc;
+	}
+    }
+
+    // reset -- Clear the results of the previous search.
+    void reset() {
+	for (int i = 0; i < touchedCount; i++) {
+	    int loc = touched[i];
+	    costF[loc] = Double.POSITIVE_INFINITY;
+	    costB[loc] = Double.POSITIVE_INFINITY;
+	    edgeF[loc] = -1;
+	    edgeB[loc] = -1;
+	    isTouched[loc] = false;
+	}
+	touchedCount = 0;
+	frontierF.clear();
+	frontierB.clear();
+    }
+
+}
+
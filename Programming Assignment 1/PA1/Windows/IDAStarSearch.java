@@ -0,0 +1,283 @@
+//
+// IDAStarSearch
+//
+// This class implements iterative-deepening A* (IDA*) search for a path
+// from one location on a map to another.  A series of depth-first searches
+// is performed, each of which only expands nodes whose sum of partial path
+// cost and heuristic value does not exceed a bound.  The first bound is the
+// heuristic value of the initial location, and each later bound is the
+// smallest sum that exceeded the bound before it.  With an admissible
+// heuristic function, the first solution found is optimal.  When road costs
+// are real numbers, though, each new bound may admit only a node or two
+// more than the last, so an optional growth fraction may be given, making
+// each bound at least that fraction larger than the one before it.  An
+// iteration may then find a solution that is not optimal, so it continues,
+// looking only for cheaper solutions, until it is done, and the cheapest
+// solution found is returned, which is still optimal.  Since only the
+// current path is remembered, the memory used grows with the depth of the
+// solution, rather than with the number of nodes generated, at the cost of
+// expanding nodes repeatedly, once in every iteration that reaches them.
+// The path is held in primitive arrays of location ids, partial path costs,
+// and positions in the lists of roads leaving each location, over the
+// compact form of the map, and Waypoint objects are made only for the
+// solution path.  A successor is never a location already on the current
+// path.  Optionally, a fixed-size transposition table may be used to prune
+// paths that reach a location no more cheaply than another path did earlier
+// in the same iteration.  The table is direct-mapped, so a location may be
+// forgotten when another location takes its entry, which keeps the memory
+// used bounded, however large the map.  Without the table, the number of
+// paths explored can grow exponentially on maps with many alternative
+// routes, such as grids.  The number of node
+// expansions performed by the most recent search, across all iterations,
+// is kept in "expansionCount", and the number of iterations is kept in
+// "iterationCount".  A depth limit is enforced, and the search fails if
+// that limit is reached.  Since the depth limit does not bound the work
+// done, and since a search for an unreachable destination searches every
+// reachable location again in every iteration, an optional limit on the
+// number of node expansions may also be given, and the search fails if
+// that limit is reached, too.  When either limit is reached, "limitReached"
+// is set, so that such a failure can be told apart from a search that shows
+// that there is no path.  More detailed measurements of the most
+// recent search are kept in "statistics", with the peak frontier size
+// being the length of the longest path held.
+//
+// Created Sat Oct 17 23:14:52 PDT 2026
+// Modified Sun Oct 18 06:44:03 PDT 2026
+//   (Added a limit on node expansions.)
+// Modified Sun Oct 18 09:36:12 PDT 2026
+//   (Recorded whether a limit was reached.)
+//
+
+
+import java.util.*;
+
+
+public class IDAStarSearch {
+    Map graph;
+    String initialLoc;
+    String destinationLoc;
+    int limit;
+    Heuristic heuristic;
+    // The current path, indexed by depth ...
+    int[] pathLoc = new int[16];
+    double[] pathCost = new double[16];
+    int[] pathRoad = new int[16];     // next road to try from each location
+    int[] bestPath = new int[16];
+    double boundGrowth = 0.0;
+    int expansionLimit = 0;           // zero for no limit
+    // The transposition table, or null if it is not used ...
+    int[] tableLoc;
+    double[] tableCost;
+    int[] tableIteration;
+    int tableShift;
+    public int expansionCount = 0;
+    public int iterationCount = 0;
+    public boolean limitReached = false;   // true if the last search hit one
+    public SearchStatistics statistics = new SearchStatistics("idastar");
+
+    // Constructor with the map, the initial and destination location names,
+    // and the depth limit specified.  The heuristic function assigns zero
+    // to every node until another is provided.
+    public IDAStarSearch(Map graph, String initialLoc, String destinationLoc,
+			 int limit) {
+	this.graph = graph;
+	this.initialLoc = initialLoc;
+	this.destinationLoc = destinationLoc;
+	this.limit = limit;
+	this.heuristic = new Heuristic();
+    }
+
+    // setHeuristic -- Use the given heuristic function during search.  The
+    // destination of the heuristic function is set at the start of each
+    // search.
+    public void setHeuristic(Heuristic heuristic) {
+	this.heuristic = heuristic;
+    }
+
+    // setBoundGrowth -- Make each bound at least the given fraction larger
+    // than the bound before it.  A fraction of zero gives the usual IDA*
+    // search.
+    public void setBoundGrowth(double boundGrowth) {
+	this.boundGrowth = boundGrowth;
+    }
+
+    // setExpansionLimit -- Stop searching, and fail, once the given number
+    // of nodes have been expanded.  A limit of zero, or less, removes the
+    // limit.
+    public void setExpansionLimit(int expansionLimit) {
+	this.expansionLimit = expansionLimit;
+    }
+
+    // setTranspositionTable -- Use a transposition table with room for at
+    // least the given number of locations, rounded up to a power of two, to
+    // prune repeated paths.  A size of zero turns the table off.
+    public void setTranspositionTable(int size) {
+	if (size <= 0) {
+	    tableLoc = null;
+	    tableCost = null;
+	    tableIteration = null;
+	    return;
+	}
+	int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+	tableLoc = new int[capacity];
+	tableCost = new double[capacity];
+	tableIteration = new int[capacity];
+	tableShift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    // search -- Search for a path from the initial location to the
+    // destination location.  Return the Waypoint at the end of the solution
+    // path, or null if no solution is found or if the depth limit or the
+    // expansion limit is reached.
+    public Waypoint search() {
+	statistics.start(initialLoc, destinationLoc);
+	Waypoint solution = find();
+	statistics.expansionCount = expansionCount;
+	statistics.stop(solution);
+	return (solution);
+    }
+
+    // find -- Perform the search, as described for the "search" method.
+    Waypoint find() {
+	expansionCount = 0;
+	iterationCount = 0;
+	limitReached = false;
+	Location start = graph.findLocation(initialLoc);
+	Location goal = graph.findLocation(destinationLoc);
+	if ((start == null) || (goal == null))
+	    return (null);
+	CompactMap map = graph.compact();
+	heuristic.setDestination(goal);
+	if (tableIteration != null)
+	    Arrays.fill(tableIteration, 0);
+	double h = heuristic.heuristicFunction(start);
+	statistics.heuristicCount++;
+	double floor = h;    // no solution is cheaper than this
+	double bound = h;
+	while (true) {
+	    iterationCount++;
+	    pathLoc[0] = start.id;
+	    pathCost[0] = 0.0;
+	    pathRoad[0] = map.firstRoad[start.id];
+	    statistics.generatedCount++;
+	    statistics.noteFrontierSize(1);
+	    record(start.id, 0.0);
+	    int depth = 0;
+	    double nextBound = Double.POSITIVE_INFINITY;
+	    double bestCost = Double.POSITIVE_INFINITY;
+	    int bestLength = 0;
+	    while (depth >= 0) {
+		int loc = pathLoc[depth];
+		if (pathRoad[depth] == map.firstRoad[loc]) {
+		    // This node is being visited for the first time ...
+		    if (loc == goal.id) {
+			if (pathCost[depth] <= floor)
+			    // No solution can be cheaper than this one ...
+			    return (map.toWaypoint(pathLoc, depth + 1));
+			// Keep this solution, but look for a cheaper one ...
+			bestCost = pathCost[depth];
+			bestLength = depth + 1;
+			if (bestPath.length < bestLength)
+			    bestPath = new int[pathLoc.length];
+			System.arraycopy(pathLoc, 0, bestPath, 0, bestLength);
+			depth--;
+			continue;
+		    }
+		    if (depth >= limit) {
+			// The depth limit has been reached ...
+			limitReached = true;
+			return (null);
+		    }
+		    if ((expansionLimit > 0)
+			&& (expansionCount >= expansionLimit)) {
+			// The expansion limit has been reached ...
+			limitReached = true;
+			return (null);
+		    }
+		    expansionCount++;
+		}
+		if (pathRoad[depth] == map.firstRoad[loc + 1]) {
+		    // Every successor has been tried, so back up ...
+		    depth--;
+		    continue;
+		}
+		int r = pathRoad[depth]++;
+		int child = map.roadTarget[r];
+		double g = pathCost[depth] + map.roadCost[r];
+		if (onPath(child, depth)) {
+		    statistics.pruneCount++;
+		    continue;
+		}
+		if (!(record(child, g))) {
+		    statistics.pruneCount++;
+		    continue;
+		}
+		double childH = heuristic.heuristicFunction(map.locations[child]);
+		statistics.heuristicCount++;
+		statistics.generatedCount++;
+		if (g + childH >= bestCost) {
+		    // This node cannot lead to a cheaper solution ...
+		    statistics.pruneCount++;
+		    continue;
+		}
+		if (g + childH > bound) {
+		    // This node is beyond the bound for this iteration ...
+		    nextBound = Math.min(nextBound, g + childH);
+		    continue;
+		}
+		depth++;
+		if (depth == pathLoc.length)
+		    grow();
+		pathLoc[depth] = child;
+		pathCost[depth] = g;
+		pathRoad[depth] = map.firstRoad[child];
+		statistics.noteFrontierSize(depth + 1);
+	    }
+	    if (bestLength > 0)
+		return (map.toWaypoint(bestPath, bestLength));
+	    if (nextBound == Double.POSITIVE_INFINITY)
+		// Every reachable location has been searched ...
+		return (null);
+	    floor = nextBound;
+	    bound = Math.max(nextBound, bound * (1.0 + boundGrowth));
+	}
+    }
+
+    // onPath -- Return true if the given location is on the current path,
+    // at or above the given depth.
+    boolean onPath(int loc, int depth) {
+	for (int d = depth; d >= 0; d--) {
+	    if (pathLoc[d] == loc)
+		return (true);
+	}
+	return (false);
+    }
+
+    // record -- Record in the transposition table that the given location
+    // has been reached with the given partial path cost in the current
+    // iteration, returning false if it had already been reached in this
+    // iteration at no greater cost.  Always return true if there is no
+    // transposition table.
+    boolean record(int loc, double g) {
+	if (tableLoc == null)
+	    return (true);
+	int slot = (loc * 0x9e3779b9) >>> tableShift;
+	if ((tableIteration[slot] == iterationCount) && (tableLoc[slot] == loc)
+	    && (tableCost[slot] <= g))
+	    return (false);
+	tableLoc[slot] = loc;
+	tableCost[slot] = g;
+	tableIteration[slot] = iterationCount;
+	return (true);
+    }
+
+    // grow -- Double the room for the current path.
+    void grow() {
+	int length = 2 * pathLoc.length;
+	pathLoc = Arrays.copyOf(pathLoc, length);
+	pathCost = Arrays.copyOf(pathCost, length);
+	pathRoad = Arrays.copyOf(pathRoad, length);
+    }
+
+}
+
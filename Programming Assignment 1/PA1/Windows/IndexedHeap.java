@@ -0,0 +1,222 @@
+//
+// IndexedHeap
+//
+// This class implements an indexed priority queue of small non-negative
+// integer identifiers, each paired with a double precision floating point
+// key.  The identifier with the smallest key is the first to be removed,
+// with ties broken in favor of the smaller identifier.  The queue is stored
+// as a d-ary heap in a primitive array, and a second array records the heap
+// position of every identifier currently in the queue.  This position index
+// allows the key of a queued identifier to be changed, or the identifier to
+// be removed from the middle of the queue, in logarithmic time, and it allows
+// membership to be tested in constant time.  Since only primitive arrays are
+// used, no objects are allocated when identifiers are inserted or removed,
+// except when the arrays must grow to accommodate a larger identifier.  This
+// class is intended to be used as the engine behind frontiers of search tree
+// nodes, as well as priority queues of map locations.
+//
+// Created Sat Oct 17 10:05:11 PDT 2026
+//
+
+
+import java.util.*;
+
+
+public class IndexedHeap {
+    static final int ARITY = 4;   // number of children of each heap node
+    int[] heap;                   // heap slot -> identifier
+    int[] position;               // identifier -> heap slot, or -1
+    double[] key;                 // identifier -> key
+    int size = 0;
+
+    // Default constructor ...
+    public IndexedHeap() {
+	this(16);
+    }
+
+    // Constructor with initial capacity specified ...
+    public IndexedHeap(int capacity) {
+	if (capacity < 1)
+	    capacity = 1;
+	this.heap = new int[capacity];
+	this.position = new int[capacity];
+	this.key = new double[capacity];
+	Arrays.fill(this.position, -1);
+    }
+
+    // isEmpty -- Return true if and only if there are currently no
+    // identifiers in the queue.
+    public boolean isEmpty() {
+	return (size == 0);
+    }
+
+    // size -- Return the number of identifiers currently in the queue.
+    public int size() {
+	return (size);
+    }
+
+    // contains -- Return true if and only if the given identifier is
+    // currently in the queue.
+    public boolean contains(int id) {
+	return ((id >= 0) && (id < position.length) && (position[id] >= 0));
+    }
+
+    // getKey -- Return the key of the given identifier, which should
+    // currently be in the queue.
+    public double getKey(int id) {
+	return (key[id]);
+    }
+
+    // peek -- Return the identifier with the smallest key, without removing
+    // it from the queue.  Return -1 if the queue is empty.
+    public int peek() {
+	if (size == 0)
+	    return (-1);
+	return (heap[0]);
+    }
+
+    // peekKey -- Return the smallest key in the queue, or positive infinity
+    // if the queue is empty.
+    public double peekKey() {
+	if (size == 0)
+	    return (Double.POSITIVE_INFINITY);
+	return (key[heap[0]]);
+    }
+
+    // insert -- Add the given identifier to the queue with the given key.
+    // If the identifier is already in the queue, its key is changed to the
+    // given value, instead.
+    public void insert(int id, double k) {
+	if (contains(id)) {
+	    update(id, k);
+	    return;
+	}
+	ensureCapacity(id + 1);
+	if (size == heap.length)
+	    heap = Arrays.copyOf(heap, 2 * heap.length);
+	key[id] = k;
+	heap[size] = id;
+	position[id] = size;
+	size++;
+	siftUp(size - 1);
+    }
+
+    // update -- Change the key of an identifier currently in the queue,
+    // restoring the heap property in whichever direction is needed.
+    public void update(int id, double k) {
+	double old = key[id];
+	key[id] = k;
+	if (k < old)
+	    siftUp(position[id]);
+	else
+	    siftDown(position[id]);
+    }
+
+    // removeMin -- Return the identifier with the smallest key, and remove
+    // it from the queue.  Return -1 if the queue is empty.
+    public int removeMin() {
+	if (size == 0)
+	    return (-1);
+	int top = heap[0];
+	removeAt(0);
+	return (top);
+    }
+
+    // remove -- Remove the given identifier from the queue, if it is there.
+    // Return true if and only if it was in the queue.
+    public boolean remove(int id) {
+	if (!(contains(id)))
+	    return (false);
+	removeAt(position[id]);
+	return (true);
+    }
+
+    // clear -- Remove all identifiers from the queue.
+    public void clear() {
+	for (int i = 0; i < size; i++)
+	    position[heap[i]] = -1;
+	size = 0;
+    }
+
+    // removeAt -- Remove the identifier in the given heap slot, filling the
+    // hole with the last identifier in the heap.
+    void removeAt(int slot) {
+	int id = heap[slot];
+	size--;
+	position[id] = -1;
+	if (slot == size)
+	    return;
+	int last = heap[size];
+	heap[slot] = last;
+	position[last] = slot;
+	siftUp(slot);
+	if (heap[slot] == last)
+	    siftDown(slot);
+    }
+
+    // before -- Return true if and only if the first identifier should be
+    // removed from the queue before the second.
+    boolean before(int a, int b) {
+	double ka = key[a];
+	double kb = key[b];
+	return ((ka < kb) || ((ka == kb) && (a < b)));
+    }
+
+    // siftUp -- Move the identifier in the given slot toward the root of
+    // the heap until its parent should be removed before it.
+    void siftUp(int slot) {
+	int id = heap[slot];
+	while (slot > 0) {
+	    int parentSlot = (slot - 1) / ARITY;
+	    int parent = heap[parentSlot];
+	    if (!(before(id, parent)))
+		break;
+	    heap[slot] = parent;
+	    position[parent] = slot;
+	    slot = parentSlot;
+	}
+	heap[slot] = id;
+	position[id] = slot;
+    }
+
+    // siftDown -- Move the identifier in the given slot toward the leaves
+    // of the heap until it should be removed before all of its children.
+    void siftDown(int slot) {
+	int id = heap[slot];
+	while (true) {
+	    int firstChild = ARITY * slot + 1;
+	    if (firstChild >= size)
+		break;
+	    int lastChild = Math.min(firstChild + ARITY, size);
+	    int best = heap[firstChild];
+	    int bestSlot = firstChild;
+	    for (int c = firstChild + 1; c < lastChild; c++) {
+		if (before(heap[c], best)) {
+		    best = heap[c];
+		    bestSlot = c;
+		}
+	    }
+	    if (!(before(best, id)))
+		break;
+	    heap[slot] = best;
+	    position[best] = slot;
+	    slot = bestSlot;
+	}
+	heap[slot] = id;
+	position[id] = slot;
+    }
+
+    // ensureCapacity -- Make sure that identifiers smaller than the given
+    // value can be stored in the queue.
+    void ensureCapacity(int n) {
+	if (n <= position.length)
+	    return;
+	int capacity = Math.max(n, 2 * position.length);
+	int oldCapacity = position.length;
+	position = Arrays.copyOf(position, capacity);
+	Arrays.fill(position, oldCapacity, capacity, -1);
+	key = Arrays.copyOf(key, capacity);
+    }
+
+}
+
@@ -0,0 +1,57 @@
+//
+// LifoPolicy
+//
+// This class implements a FrontierPolicy that expands the most recently
+// generated search tree node first, giving depth-first search.  The nodes
+// are held in an array used as a stack, which doubles in size when it is
+// full.  Nodes keep their places, so they are never replaced.
+//
+// Created Sun Oct 18 07:29:05 PDT 2026
+//
+
+
+import java.util.*;
+
+
+public class LifoPolicy implements FrontierPolicy {
+    int[] stack = new int[64];
+    int size = 0;
+
+    // clear -- Remove every node, before a search of the given tree.
+    public void clear(SearchTree tree) {
+	size = 0;
+    }
+
+    // isEmpty -- Return true if there are no nodes in the frontier.
+    public boolean isEmpty() {
+	return (size == 0);
+    }
+
+    // size -- Return the number of nodes in the frontier.
+    public int size() {
+	return (size);
+    }
+
+    // insert -- Push the given node onto the stack.
+    public void insert(int node) {
+	if (size == stack.length)
+	    stack = Arrays.copyOf(stack, 2 * size);
+	stack[size++] = node;
+    }
+
+    // removeNext -- Pop the node on the top of the stack.
+    public int removeNext() {
+	return (stack[--size]);
+    }
+
+    // canReplace -- Return false, since nodes keep their places.
+    public boolean canReplace() {
+	return (false);
+    }
+
+    // remove -- Do nothing, since nodes are never replaced.
+    public void remove(int node) {
+    }
+
+}
+
@@ -7,9 +7,13 @@
 // coordinates, and a collection of Road objects which encode the immediate
 // routes leading away from this location.  Note that textual names are
 // assumed to be unique; two locations are considered the same if they have
-// the same name.
+// the same name.  When a location is recorded in a Map, it is also given a
+// small integer identifier, its position in the map's list of locations,
+// which is used to index compact representations of the map.
 //
-// David Noelle -- Sun Feb 11 17:37:21 PST 2007
+// David Noelle -- Created Sun Feb 11 17:37:21 PST 2007
+//                 Modified Sat Oct 17 12:14:27 PDT 2026
+//                   (Added integer identifier.)
 //
 
 
@@ -19,6 +23,7 @@ import java.util.*;
 
 public class Location {
     public String name = "";
+    public int id = -1;
     public double longitude = 0.0;
     public double latitude = 0.0;
     public List<Road> roads;
@@ -13,24 +13,80 @@
 // their being read and parsed.  The map is stored as a collection of 
 // Location objects, with each Location being given the responsibility of
 // maintaining all of the Road objects corresponding to road segments leading
-// out of it.
+// out of it.  A hash table indexing the locations by name is maintained
+// alongside the collection, so that locations can be found quickly while
+// a road file is being read.  Once a map has been read, it can be frozen
+// into a CompactMap, which stores the road network in primitive arrays.
+// Maps can also be read from a single binary map file, in the format
+// written by the MapFile class, which is much faster than parsing text.
+// A reversed compact form, in which every road is turned around, is also
+// available for searches that work backward from a destination.  The
+// costs of the shortest paths between many pairs of locations can be
+// computed all at once, as a DistanceMatrix, using several threads.  The
+// locations can be indexed by their coordinates, in a SpatialIndex, so
+// that the location nearest to a given point can be found quickly.
+// Finally, a map can be frozen into an immutable snapshot, which can then
+// be shared by many concurrent searches.  A snapshot holds its own copies
+// of the Location and Road objects, with interned names, lists of roads
+// that cannot be modified, and its compact forms already made, and any
+// attempt to add locations or roads to it fails.  Its list of locations and
+// name index are final, so a snapshot is safely published to other threads
+// once its reference is, however that reference is passed to them.
 //
-// David Noelle -- Sun Feb 11 18:05:18 PST 2007
+// Roads can be added to and removed from a map that is not a snapshot, and
+// the costs of its roads can be changed in place.  (Cost changes are made
+// to the compact forms of the map, as well, so they need not be rebuilt.)
+// Each change increments the version number of the map, and it is reported
+// to every registered MapListener, so that the results of earlier searches
+// can be repaired or discarded.  Changes should be made by only one thread
+// at a time, and not while other threads are searching the map.
+//
+// David Noelle -- Created Sun Feb 11 18:05:18 PST 2007
+//                 Modified Sat Oct 17 09:12:40 PDT 2026
+//                   (Indexed locations by name for fast lookup.)
+//                 Modified Sat Oct 17 12:14:27 PDT 2026
+//                   (Added compact road network representation.)
+//                 Modified Sat Oct 17 13:02:45 PDT 2026
+//                   (Added reading of binary map files.)
+//                 Modified Sat Oct 17 15:03:38 PDT 2026
+//                   (Added reversed compact road network.)
+//                 Modified Sat Oct 17 17:35:20 PDT 2026
+//                   (Added many-to-many distance matrices.)
+//                 Modified Sat Oct 17 18:47:03 PDT 2026
+//                   (Added immutable snapshots.)
+//                 Modified Sat Oct 17 19:26:18 PDT 2026
+//                   (Added road updates, versions, and listeners.)
+//                 Modified Sat Oct 17 23:58:41 PDT 2026
+//                   (Added spatial index of locations.)
+//                 Modified Sun Oct 18 00:41:07 PDT 2026
+//                   (Parsed text map files with a MapTextReader.)
+//                 Modified Sun Oct 18 01:27:33 PDT 2026
+//                   (Read large road files in parallel.)
 //
 
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 
 public class Map {
     String locationFilename = "locations.dat";
     String roadFilename = "roads.dat";
-    List<Location> locations;
+    final List<Location> locations;
+    final HashMap<String, Location> locationIndex;
+    final boolean frozen;
+    final List<MapListener> listeners = new ArrayList<MapListener>();
+    volatile long version = 0;
+    volatile CompactMap compactForm = null;
+    volatile CompactMap reverseForm = null;
+    volatile SpatialIndex spatialForm = null;
 
     // Default constructor ...
     public Map() {
 	this.locations = new ArrayList<Location>();
+	this.locationIndex = new HashMap<String, Location>();
+	this.frozen = false;
     }
 
     // Constructor with filenames specified ...
@@ -40,6 +96,45 @@ public class Map {
 	this.roadFilename = roadFilename;
     }
 
+    // Constructor making an immutable snapshot of the given map ...
+    Map(Map original) {
+	int locationCount = original.locations.size();
+	List<Location> copies = new ArrayList<Location>(locationCount);
+	this.locationFilename = original.locationFilename;
+	this.roadFilename = original.roadFilename;
+	this.locationIndex = new HashMap<String, Location>(2 * locationCount);
+	// Copy the locations, so that they can be found by id ...
+	for (Location loc : original.locations) {
+	    Location copy = new Location(intern(loc.name),
+					 loc.longitude, loc.latitude);
+	    copy.id = copies.size();
+	    copies.add(copy);
+	    if (!(locationIndex.containsKey(copy.name)))
+		locationIndex.put(copy.name, copy);
+	}
+	// Copy the roads leading out of each location ...
+	for (int i = 0; i < locationCount; i++) {
+	    Location from = copies.get(i);
+	    List<Road> roads = original.locations.get(i).roads;
+	    List<Road> roadCopies = new ArrayList<Road>(roads.size());
+	    for (Road r : roads) {
+		Road copy = new Road();
+		copy.name = intern(r.name);
+		copy.fromLocation = from;
+		copy.fromLocationName = from.name;
+		copy.toLocation = copies.get(r.toLocation.id);
+		copy.toLocationName = copy.toLocation.name;
+		copy.cost = r.cost;
+		roadCopies.add(copy);
+	    }
+	    from.roads = Collections.unmodifiableList(roadCopies);
+	}
+	this.locations = Collections.unmodifiableList(copies);
+	this.frozen = true;
+	this.compactForm = new CompactMap(this);
+	this.reverseForm = compactForm.reverse();
+    }
+
     // setLocationFilename -- Record the given pathname of a location file for
     // later use during map reading.
     public void setLocationFilename(String filename) {
@@ -75,54 +170,45 @@ public class Map {
 	return (true);
     }
 
-    // findLocation -- Search through the collection of locations on this map
-    // for one with the given textual name.  Return a reference to the
-    // corresponding Location object, or null if no such location is found.
+    // findLocation -- Look up the location on this map with the given
+    // textual name.  Return a reference to the corresponding Location
+    // object, or null if no such location is found.  The name index makes
+    // this a constant time operation, rather than a search through the
+    // entire collection of locations.
     public Location findLocation(String name) {
-	for (Location loc : locations) {
-	    if (loc.name.equals(name))
-		return (loc);
-	}
-	return (null);
+	return (locationIndex.get(name));
     }
 
     // recordLocation -- Add the given Location object to the collection of
-    // locations for this map.
+    // locations for this map, and index it by name.  Location names are
+    // assumed to be unique, but, if a name is repeated, the first location
+    // recorded with that name is the one that will be found.  The location
+    // is given an identifier equal to its position in the collection.
     public void recordLocation(Location loc) {
+	if (frozen)
+	    throw new UnsupportedOperationException("A map snapshot cannot be changed.");
+	loc.id = locations.size();
+	forgetCompactForms();
+	spatialForm = null;
 	locations.add(loc);
+	if (!(locationIndex.containsKey(loc.name)))
+	    locationIndex.put(loc.name, loc);
+	version++;
+	for (MapListener listener : listeners)
+	    listener.locationAdded(loc);
     }
 
     // readLocations -- Attempt to open the location file specified by the
     // appropriate pathname stored in this Map object.  If this file can
     // be opened for reading, read a collection of locations from this file
-    // into the Map object's collection of Location objects.  Return false
-    // on error.
+    // into the Map object's collection of Location objects.  The file is
+    // parsed by a MapTextReader, which reads the same format as the "read"
+    // method of the Location class, but much faster.  Return false on
+    // error, or if this map is a snapshot.
     public boolean readLocations() {
-	try {
-	    File locFile = new File(locationFilename);
-	    if (locFile.exists() && locFile.canRead()) {
-		FileInputStream locFileIn = new FileInputStream(locFile);
-		InputStreamReader locISReader 
-		    = new InputStreamReader(locFileIn);
-		BufferedReader locBufferedReader
-		    = new BufferedReader(locISReader);
-		// Allocate storage for the first location to be read ...
-		Location loc = new Location();
-		while (loc.read(locBufferedReader)) {
-		    // Record location in the map ...
-		    recordLocation(loc);
-		    // Allocate storage for the next location ...
-		    loc = new Location();
-		}
-		return (true);
-	    } else {
-		// The file cannot be read ...
-		return (false);
-	    }
-	} catch (IOException e) {
-	    // Something went wrong ...
+	if (frozen)
 	    return (false);
-	}
+	return (MapTextReader.readLocations(this, locationFilename));
     }
 
     // readRoads -- Attempt to open the road file specified by the appropriate
@@ -132,47 +218,23 @@ public class Map {
     // Location objects in this Map object's collection of locations.  Note
     // that this means that the map must know about all locations on the map
     // before a road file is read.  This can be done by calling the
-    // "readLocations" method before calling this method.  Return false on
-    // error.
+    // "readLocations" method before calling this method.  The file is
+    // parsed by MapTextReaders, which read the same format as the "read"
+    // method of the Road class, but much faster, and a large file is
+    // divided among the threads of the common ForkJoinPool.  Return false
+    // on error, or if this map is a snapshot.
     public boolean readRoads() {
-	try {
-	    File roadFile = new File(roadFilename);
-	    if (roadFile.exists() && roadFile.canRead()) {
-		FileInputStream roadFileIn = new FileInputStream(roadFile);
-		InputStreamReader roadISReader
-		    = new InputStreamReader(roadFileIn);
-		BufferedReader roadBufferedReader
-		    = new BufferedReader(roadISReader);
-		// Allocate storage for the first road segment ot be read ...
-		Road r = new Road();
-		while (r.read(roadBufferedReader)) {
-		    // Fill in connections to location objects ...
-		    r.fromLocation = findLocation(r.fromLocationName);
-		    if (r.fromLocation == null) {
-			System.err.printf("The location, %s, is not known.\n",
-					  r.fromLocationName);
-			return (false);
-		    }
-		    r.toLocation = findLocation(r.toLocationName);
-		    if (r.toLocation == null) {
-			System.err.printf("The location, %s, is not known.\n",
-					  r.toLocationName);
-			return (false);
-		    }
-		    // Record the road in the appropriate location ...
-		    r.fromLocation.recordRoad(r);
-		    // Allocate storage for the next road segment ...
-		    r = new Road();
-		}
-		return (true);
-	    } else {
-		// The specified road file could not be read ...
-		return (false);
-	    }
-	} catch (IOException e) {
-	    // Something went wrong ...
+	return (readRoads(ForkJoinPool.commonPool()));
+    }
+
+    // readRoads -- Read the road file, as described above, dividing a large
+    // file among the threads of the given pool.  The roads are added to the
+    // map by the calling thread, in the order in which they appear in the
+    // file.  Return false on error, or if this map is a snapshot.
+    public boolean readRoads(ForkJoinPool pool) {
+	if (frozen)
 	    return (false);
-	}
+	return (ParallelRoadReader.readRoads(this, roadFilename, pool));
     }
 
     // readMap -- Prompt the user for the pathnames of a location file and
@@ -182,5 +244,236 @@ public class Map {
 	return (promptForFilenames() && readLocations() && readRoads());
     }
 
+    // readMapFile -- Read the binary map file with the given pathname, in
+    // the format written by the MapFile class, into this Map object, which
+    // should be empty.  The file is memory mapped, rather than parsed line
+    // by line.  Return false on error, or if this map is a snapshot.
+    public boolean readMapFile(String filename) {
+	if (frozen)
+	    return (false);
+	return (MapFile.read(this, filename));
+    }
+
+    // compact -- Return a CompactMap holding the road network of this map
+    // in compressed sparse row form.  The compact form is made the first
+    // time that it is requested, and it is then reused until locations or
+    // roads are added to the map through this object.  Note that changes
+    // made directly to Location or Road objects are not noticed, so the
+    // compact form should be requested only once the map is complete.
+    public CompactMap compact() {
+	if (compactForm == null)
+	    compactForm = new CompactMap(this);
+	return (compactForm);
+    }
+
+    // reverseCompact -- Return a CompactMap holding the road network of this
+    // map with the direction of every road reversed.  As with the compact
+    // form, this is made the first time that it is requested and then
+    // reused until the map changes.
+    public CompactMap reverseCompact() {
+	if (reverseForm == null)
+	    reverseForm = compact().reverse();
+	return (reverseForm);
+    }
+
+    // spatialIndex -- Return a SpatialIndex of the locations on this map.
+    // As with the compact form, this is made the first time that it is
+    // requested and then reused until locations are added to the map.
+    public SpatialIndex spatialIndex() {
+	if (spatialForm == null)
+	    spatialForm = new SpatialIndex(this);
+	return (spatialForm);
+    }
+
+    // nearestLocation -- Return the location on this map nearest to the
+    // point with the given coordinates, or null if the map is empty.
+    public Location nearestLocation(double longitude, double latitude) {
+	return (spatialIndex().nearest(longitude, latitude));
+    }
+
+    // distanceMatrix -- Return a DistanceMatrix holding the costs of the
+    // shortest paths from each of the locations with the first given list
+    // of names to each of the locations with the second given list of
+    // names, computed using the common ForkJoinPool.  Return null if any of
+    // the locations is not known.
+    public DistanceMatrix distanceMatrix(List<String> sources,
+					 List<String> targets) {
+	return (distanceMatrix(sources, targets, false,
+			       ForkJoinPool.commonPool()));
+    }
+
+    // distanceMatrix -- Return a DistanceMatrix holding the costs of the
+    // shortest paths from each of the locations with the first given list
+    // of names to each of the locations with the second given list of
+    // names, also keeping the paths themselves if requested.  The sources
+    // are divided among the threads of the given pool.  Return null if any
+    // of the locations is not known.
+    public DistanceMatrix distanceMatrix(List<String> sources,
+					 List<String> targets,
+					 boolean keepPaths,
+					 ForkJoinPool pool) {
+	int[] sourceIds = findLocationIds(sources);
+	int[] targetIds = findLocationIds(targets);
+	if ((sourceIds == null) || (targetIds == null))
+	    return (null);
+	return (new DistanceMatrix(this, sourceIds, targetIds,
+				   keepPaths, pool));
+    }
+
+    // findLocationIds -- Return the ids of the locations with the given
+    // names, or null if any of them is not known.
+    int[] findLocationIds(List<String> names) {
+	int[] ids = new int[names.size()];
+	int i = 0;
+	for (String name : names) {
+	    Location loc = findLocation(name);
+	    if (loc == null) {
+		System.err.printf("The location, %s, is not known.\n", name);
+		return (null);
+	    }
+	    ids[i++] = loc.id;
+	}
+	return (ids);
+    }
+
+    // addRoad -- Add the given Road object to the roads leading out of its
+    // "from" location.  If the road's Location objects have not been filled
+    // in, they are found using the road's location names.  Return false if
+    // either location is not on this map, or if this map is a snapshot.
+    public boolean addRoad(Road r) {
+	if (frozen)
+	    return (false);
+	if (r.fromLocation == null)
+	    r.fromLocation = findLocation(r.fromLocationName);
+	if (!(isRecorded(r.fromLocation))) {
+	    System.err.printf("The location, %s, is not known.\n",
+			      r.fromLocationName);
+	    return (false);
+	}
+	if (r.toLocation == null)
+	    r.toLocation = findLocation(r.toLocationName);
+	if (!(isRecorded(r.toLocation))) {
+	    System.err.printf("The location, %s, is not known.\n",
+			      r.toLocationName);
+	    return (false);
+	}
+	r.fromLocation.recordRoad(r);
+	forgetCompactForms();
+	version++;
+	for (MapListener listener : listeners)
+	    listener.roadAdded(r);
+	return (true);
+    }
+
+    // removeRoad -- Remove the given Road object from the roads leading out
+    // of its "from" location.  Return false if the road is not on this map,
+    // or if this map is a snapshot.
+    public boolean removeRoad(Road r) {
+	if (frozen || !(isRecorded(r.fromLocation)))
+	    return (false);
+	if (!(r.fromLocation.roads.remove(r)))
+	    return (false);
+	forgetCompactForms();
+	version++;
+	for (MapListener listener : listeners)
+	    listener.roadRemoved(r);
+	return (true);
+    }
+
+    // setRoadCost -- Change the incremental path cost of the given Road
+    // object, which must be on this map, to the given non-negative value.
+    // The compact forms of the map, if they have been made, are updated in
+    // place, but structures computed from them, such as the tables of a
+    // LandmarkHeuristic or a ContractionHierarchy, are not; these note the
+    // version of the map, and they are not used once it changes.  Return
+    // false if the road is not on this map, if the cost is negative, or if
+    // this map is a snapshot.
+    public boolean setRoadCost(Road r, double cost) {
+	if (frozen || (cost < 0.0) || !(isRecorded(r.fromLocation)))
+	    return (false);
+	int index = r.fromLocation.roads.indexOf(r);
+	if (index < 0)
+	    return (false);
+	double oldCost = r.cost;
+	r.cost = cost;
+	CompactMap forward = compactForm;
+	if (forward != null)
+	    forward.roadCost[forward.firstRoad[r.fromLocation.id] + index]
+		= cost;
+	CompactMap backward = reverseForm;
+	if (backward != null) {
+	    // Roads into a location are kept in order of their "from"
+	    // location, and then in their original order, so find how many
+	    // earlier roads join the same two locations ...
+	    int from = r.fromLocation.id;
+	    int twins = 0;
+	    for (int i = 0; i < index; i++)
+		if (r.fromLocation.roads.get(i).toLocation == r.toLocation)
+		    twins++;
+	    int slot = backward.firstRoad[r.toLocation.id];
+	    while ((backward.roadTarget[slot] != from) || (twins-- > 0))
+		slot++;
+	    backward.roadCost[slot] = cost;
+	}
+	version++;
+	for (MapListener listener : listeners)
+	    listener.roadCostChanged(r, oldCost);
+	return (true);
+    }
+
+    // version -- Return the version number of this map, which is
+    // incremented every time that the map changes.
+    public long version() {
+	return (version);
+    }
+
+    // addListener -- Report every later change to this map to the given
+    // listener.
+    public void addListener(MapListener listener) {
+	listeners.add(listener);
+    }
+
+    // removeListener -- Stop reporting changes to this map to the given
+    // listener.
+    public void removeListener(MapListener listener) {
+	listeners.remove(listener);
+    }
+
+    // isRecorded -- Return true if and only if the given Location object
+    // is one of the locations on this map.
+    boolean isRecorded(Location loc) {
+	return ((loc != null) && (loc.id >= 0) && (loc.id < locations.size())
+		&& (locations.get(loc.id) == loc));
+    }
+
+    // snapshot -- Return an immutable copy of this map, which may be shared
+    // by many threads without locking.  Later changes to this map are not
+    // reflected in the snapshot.  The snapshot of a snapshot is the
+    // snapshot itself.
+    public Map snapshot() {
+	if (frozen)
+	    return (this);
+	return (new Map(this));
+    }
+
+    // isSnapshot -- Return true if and only if this map is an immutable
+    // snapshot.
+    public boolean isSnapshot() {
+	return (frozen);
+    }
+
+    // intern -- Return the canonical copy of the given string, or null if
+    // the given string is null.
+    static String intern(String s) {
+	return ((s == null) ? null : s.intern());
+    }
+
+    // forgetCompactForms -- Discard the compact forms of this map, which
+    // have become out of date.
+    void forgetCompactForms() {
+	compactForm = null;
+	reverseForm = null;
+    }
+
 }
 
@@ -0,0 +1,34 @@
+//
+// MapListener
+//
+// This interface is implemented by objects that need to know when a Map
+// changes, such as structures holding the results of earlier searches over
+// the map.  A listener is registered with the map using its "addListener"
+// method, and it is then told about every location that is added to the
+// map, every road that is added or removed, and every change to the cost
+// of a road, just after the change has been made.  Listeners are called by
+// the thread making the change, so they should do little more than note
+// what has changed, leaving any real work for later.
+//
+// Created Sat Oct 17 19:26:18 PDT 2026
+//
+
+
+public interface MapListener {
+
+    // locationAdded -- Note that the given location has been added to the
+    // map.  It has no roads yet.
+    void locationAdded(Location loc);
+
+    // roadAdded -- Note that the given road has been added to the map.
+    void roadAdded(Road road);
+
+    // roadRemoved -- Note that the given road has been removed from the map.
+    void roadRemoved(Road road);
+
+    // roadCostChanged -- Note that the cost of the given road has changed
+    // from the given old cost to its current cost.
+    void roadCostChanged(Road road, double oldCost);
+
+}
+
@@ -0,0 +1,425 @@
+//
+// MapTextReader
+//
+// This class reads location files and road files, in the text format
+// described in the Map class, much faster than the "read" methods of the
+// Location and Road classes, which make a Scanner, with a regular
+// expression delimiter, for every line.  A file is read through a large
+// buffer, using an NIO channel, and each line is split into fields by
+// scanning the bytes of the buffer directly, so no String is made for a
+// line or for any of its fields except for the names that must be kept.
+// Numbers in decimal notation with no more than 19 significant digits and
+// a small exponent, which covers nearly all map files, are converted
+// directly from the bytes of the buffer, with correct rounding; others are
+// handed to Double.parseDouble.  Location names in a road file are looked
+// up by their bytes, in a hash table of the names of the locations already
+// on the map, and road names are interned, by their bytes, so that the two
+// directions of a road, or the many segments of a long street, share a
+// single String.  Names that are not plain ASCII are decoded, and looked
+// up, in the platform's default character set, as before, so files must be
+// in a character set in which the ASCII characters are single bytes, such
+// as UTF-8.  A large road file may be divided into chunks, each read by its
+// own MapTextReader, as is done by the ParallelRoadReader class.
+//
+// The files are read just as the "read" methods of the Location and Road
+// classes would read them, except that numbers written with grouping
+// separators, such as "1,000", are not accepted.  Fields are separated by
+// whitespace, and lines may end in a line feed, a carriage return, or both.
+// A location needs at least a name, which may be followed by a longitude
+// and a latitude.  A road needs a name, the names of its "from" and "to"
+// locations, and a cost.  Reading stops, without error, at the end of the
+// file or at the first line that is not a complete location or road.  A
+// road leading from or to a location that is not known is reported, and
+// reading fails.
+//
+// Created Sun Oct 18 00:41:07 PDT 2026
+// Modified Sun Oct 18 01:27:33 PDT 2026
+//   (Allowed road files to be read in parallel chunks.)
+// Modified Sun Oct 18 07:14:26 PDT 2026
+//   (Moved the NameTable class into its own file.)
+//
+
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+
+public class MapTextReader {
+    static final int BUFFER_SIZE = 1 << 20;
+    static final int MAX_FIELDS = 4;
+    static final double[] POWERS_OF_TEN = {
+	1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+	1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    static final Charset CHARSET = Charset.defaultCharset();
+    ReadableByteChannel channel;
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int position = 0;             // start of the next line in the buffer
+    int limit = 0;                // end of the bytes read into the buffer
+    boolean atEnd = false;        // true once the channel is exhausted
+    boolean skipLineFeed = false; // true after a carriage return
+    // The fields of the current line ...
+    int fieldCount = 0;
+    int[] fieldStart = new int[MAX_FIELDS];
+    int[] fieldEnd = new int[MAX_FIELDS];
+    double number;                // the value of the last number parsed
+    // Names interned by all of the readers of a file, or null ...
+    ConcurrentMap<String, String> sharedNames = null;
+
+    // Constructor with the channel to be read specified ...
+    MapTextReader(ReadableByteChannel channel) {
+	this.channel = channel;
+    }
+
+    // readLocations -- Read the location file with the given pathname,
+    // recording each location in the given map.  Return false on error.
+    public static boolean readLocations(Map map, String filename) {
+	File file = new File(filename);
+	if (!(file.exists() && file.canRead()))
+	    // The file cannot be read ...
+	    return (false);
+	try {
+	    FileInputStream stream = new FileInputStream(file);
+	    try {
+		MapTextReader in = new MapTextReader(stream.getChannel());
+		while (in.nextLine() && (in.fieldCount > 0)) {
+		    Location loc = new Location(in.string(0));
+		    if ((in.fieldCount > 1) && in.parseNumber(1)) {
+			// There is a longitude to read ...
+			loc.longitude = in.number;
+			if ((in.fieldCount > 2) && in.parseNumber(2)) {
+			    // There is a latitude to read ...
+			    loc.latitude = in.number;
+			}
+		    }
+		    map.recordLocation(loc);
+		}
+		return (true);
+	    } finally {
+		stream.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+    }
+
+    // readRoads -- Read the road file with the given pathname, recording
+    // each road in the given map, which must already hold the locations
+    // that the roads join.  Return false on error, or if a road leads from
+    // or to a location that is not known.
+    public static boolean readRoads(Map map, String filename) {
+	File file = new File(filename);
+	if (!(file.exists() && file.canRead()))
+	    // The specified road file could not be read ...
+	    return (false);
+	NameTable<Location> locationNames = locationTable(map);
+	NameTable<String> roadNames = new NameTable<String>(1024);
+	try {
+	    FileInputStream stream = new FileInputStream(file);
+	    try {
+		MapTextReader in = new MapTextReader(stream.getChannel());
+		Road r;
+		while (in.nextLine()
+		       && ((r = in.parseRoad(map, locationNames,
+					     roadNames)) != null)) {
+		    if (r.fromLocation == null) {
+			System.err.printf("The location, %s, is not known.\n",
+					  r.fromLocationName);
+			return (false);
+		    }
+		    if (r.toLocation == null) {
+			System.err.printf("The location, %s, is not known.\n",
+					  r.toLocationName);
+			return (false);
+		    }
+		    // Record the road in the appropriate location ...
+		    map.addRoad(r);
+		}
+		return (true);
+	    } finally {
+		stream.close();
+	    }
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+    }
+
+    // locationTable -- Return a table of the locations on the given map, by
+    // name, for use in reading road files.  Only the first location with a
+    // name is included, and names that are not plain ASCII are left out, to
+    // be looked up by the map instead.  The table may be shared by many
+    // threads once it is made.
+    static NameTable<Location> locationTable(Map map) {
+	NameTable<Location> table
+	    = new NameTable<Location>(map.locations.size());
+	byte[] name = new byte[64];
+	for (Location loc : map.locations) {
+	    int length = loc.name.length();
+	    if (length > name.length)
+		name = new byte[2 * length];
+	    boolean ascii = true;
+	    for (int i = 0; i < length; i++) {
+		char c = loc.name.charAt(i);
+		ascii = ascii && (c < 0x80);
+		name[i] = (byte) c;
+	    }
+	    int hash = NameTable.hash(name, 0, length);
+	    if (ascii && (table.get(name, 0, length, hash) == null))
+		table.put(name, 0, length, hash, loc);
+	}
+	return (table);
+    }
+
+    // parseRoad -- Parse the current line as a road on the given map,
+    // finding its locations in the given table, and interning its name in
+    // the other given table.  If either location is not known, the returned
+    // road has a null Location object in its place, with the name that was
+    // read.  Return null if the line is not a complete road.
+    Road parseRoad(Map map, NameTable<Location> locationNames,
+		   NameTable<String> roadNames) {
+	if (!((fieldCount >= 4) && parseNumber(3)))
+	    return (null);
+	Road r = new Road();
+	r.name = intern(roadNames, 0);
+	r.fromLocation = findLocation(map, locationNames, 1);
+	r.fromLocationName
+	    = (r.fromLocation == null) ? string(1) : r.fromLocation.name;
+	r.toLocation = findLocation(map, locationNames, 2);
+	r.toLocationName
+	    = (r.toLocation == null) ? string(2) : r.toLocation.name;
+	r.cost = number;
+	return (r);
+    }
+
+    // nextLine -- Find the next line of input, splitting it into fields.
+    // Return false if there are no more lines.
+    boolean nextLine() throws IOException {
+	int end = position;
+	while (true) {
+	    if (skipLineFeed && (end < limit)) {
+		// Skip the line feed following a carriage return ...
+		if (buffer[end] == '\n')
+		    end++;
+		position = end;
+		skipLineFeed = false;
+	    }
+	    while ((end < limit) && (buffer[end] != '\n')
+		   && (buffer[end] != '\r'))
+		end++;
+	    if (end < limit)
+		break;
+	    if (atEnd) {
+		if (position == limit)
+		    // No more input, at all ...
+		    return (false);
+		break;
+	    }
+	    end -= position;
+	    fill();
+	}
+	split(position, end);
+	if (end < limit) {
+	    skipLineFeed = (buffer[end] == '\r');
+	    end++;
+	}
+	position = end;
+	return (true);
+    }
+
+    // fill -- Move the unread part of the buffer to its start, and read
+    // more input after it, enlarging the buffer if a single line fills it.
+    void fill() throws IOException {
+	int remaining = limit - position;
+	if (remaining == buffer.length)
+	    buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+	else
+	    System.arraycopy(buffer, position, buffer, 0, remaining);
+	position = 0;
+	limit = remaining;
+	ByteBuffer target = ByteBuffer.wrap(buffer, limit,
+					    buffer.length - limit);
+	int count = channel.read(target);
+	if (count < 0)
+	    atEnd = true;
+	else
+	    limit += count;
+    }
+
+    // split -- Record the positions of the first few whitespace-separated
+    // fields in the given range of the buffer.
+    void split(int start, int end) {
+	fieldCount = 0;
+	int i = start;
+	while (fieldCount < MAX_FIELDS) {
+	    while ((i < end) && isWhitespace(buffer[i]))
+		i++;
+	    if (i == end)
+		break;
+	    fieldStart[fieldCount] = i;
+	    while ((i < end) && !(isWhitespace(buffer[i])))
+		i++;
+	    fieldEnd[fieldCount++] = i;
+	}
+    }
+
+    // string -- Return the given field of the current line as a String.
+    String string(int field) {
+	int start = fieldStart[field];
+	int end = fieldEnd[field];
+	for (int i = start; i < end; i++) {
+	    if (buffer[i] < 0)
+		return (new String(buffer, start, end - start, CHARSET));
+	}
+	return (new String(buffer, start, end - start,
+			   StandardCharsets.ISO_8859_1));
+    }
+
+    // intern -- Return the given field of the current line as a String,
+    // returning the same String for every field with the same bytes.  If
+    // there are shared names, the String is also shared with any other
+    // reader using them.
+    String intern(NameTable<String> table, int field) {
+	int start = fieldStart[field];
+	int end = fieldEnd[field];
+	int hash = NameTable.hash(buffer, start, end);
+	String s = table.get(buffer, start, end, hash);
+	if (s == null) {
+	    s = string(field);
+	    if (sharedNames != null) {
+		String shared = sharedNames.putIfAbsent(s, s);
+		if (shared != null)
+		    s = shared;
+	    }
+	    table.put(buffer, start, end, hash, s);
+	}
+	return (s);
+    }
+
+    // findLocation -- Return the location on the given map with the name in
+    // the given field of the current line, looking it up in the given table
+    // of names first, or null if there is no such location.
+    Location findLocation(Map map, NameTable<Location> table, int field) {
+	int start = fieldStart[field];
+	int end = fieldEnd[field];
+	Location loc
+	    = table.get(buffer, start, end, NameTable.hash(buffer, start, end));
+	if (loc == null)
+	    loc = map.findLocation(string(field));
+	return (loc);
+    }
+
+    // parseNumber -- Parse the given field of the current line as a double
+    // precision floating point number, leaving its value in "number".
+    // Return false if the field is not a number.
+    boolean parseNumber(int field) {
+	int i = fieldStart[field];
+	int end = fieldEnd[field];
+	boolean negative = false;
+	if ((buffer[i] == '+') || (buffer[i] == '-')) {
+	    negative = (buffer[i] == '-');
+	    i++;
+	}
+	long mantissa = 0;
+	int digits = 0;         // significant digits in the mantissa
+	int exponent = 0;
+	boolean seenDigit = false;
+	boolean exact = true;   // false if digits were dropped
+	for (; (i < end) && isDigit(buffer[i]); i++) {
+	    seenDigit = true;
+	    if ((mantissa == 0) && (buffer[i] == '0'))
+		continue;
+	    if (digits < 19) {
+		mantissa = 10 * mantissa + (buffer[i] - '0');
+		digits++;
+	    } else {
+		exact = false;
+	    }
+	}
+	if ((i < end) && (buffer[i] == '.')) {
+	    for (i++; (i < end) && isDigit(buffer[i]); i++) {
+		seenDigit = true;
+		if ((mantissa == 0) && (buffer[i] == '0')) {
+		    exponent--;
+		    continue;
+		}
+		if (digits < 19) {
+		    mantissa = 10 * mantissa + (buffer[i] - '0');
+		    digits++;
+		    exponent--;
+		} else {
+		    exact = false;
+		}
+	    }
+	}
+	if (!seenDigit)
+	    return (parseSpecial(field));
+	if ((i < end) && ((buffer[i] == 'e') || (buffer[i] == 'E'))) {
+	    i++;
+	    boolean negativeExponent = false;
+	    if ((i < end) && ((buffer[i] == '+') || (buffer[i] == '-'))) {
+		negativeExponent = (buffer[i] == '-');
+		i++;
+	    }
+	    if ((i == end) || !(isDigit(buffer[i])))
+		return (false);
+	    int e = 0;
+	    for (; (i < end) && isDigit(buffer[i]); i++)
+		e = Math.min(100000, 10 * e + (buffer[i] - '0'));
+	    exponent += negativeExponent ? -e : e;
+	}
+	if (i != end)
+	    return (false);
+	if (mantissa == 0) {
+	    number = negative ? -0.0 : 0.0;
+	} else if (exact && (mantissa < (1L << 53))
+		   && (exponent >= -22) && (exponent <= 22)) {
+	    // Both the mantissa and the power of ten are exact doubles, so
+	    // a single multiplication or division rounds correctly ...
+	    double value = (double) mantissa;
+	    if (exponent < 0)
+		value /= POWERS_OF_TEN[-exponent];
+	    else
+		value *= POWERS_OF_TEN[exponent];
+	    number = negative ? -value : value;
+	} else {
+	    number = Double.parseDouble(string(field));
+	}
+	return (true);
+    }
+
+    // parseSpecial -- Parse the given field of the current line as "NaN" or
+    // "Infinity", possibly signed, leaving its value in "number".  Return
+    // false if it is neither.
+    boolean parseSpecial(int field) {
+	String s = string(field);
+	if (s.equals("NaN")) {
+	    number = Double.NaN;
+	} else if (s.equals("Infinity") || s.equals("+Infinity")) {
+	    number = Double.POSITIVE_INFINITY;
+	} else if (s.equals("-Infinity")) {
+	    number = Double.NEGATIVE_INFINITY;
+	} else {
+	    return (false);
+	}
+	return (true);
+    }
+
+    // isDigit -- Return true if the given byte is a decimal digit.
+    static boolean isDigit(byte b) {
+	return ((b >= '0') && (b <= '9'));
+    }
+
+    // isWhitespace -- Return true if the given byte is a whitespace
+    // character, other than a line terminator.
+    static boolean isWhitespace(byte b) {
+	return ((b == ' ') || (b == '\t') || (b == 0x0b) || (b == '\f'));
+    }
+
+}
+
@@ -0,0 +1,43 @@
+//
+// NoClosedSet
+//
+// This class implements a ClosedSetPolicy that never remembers a location,
+// so that no successor is ever pruned, as in a search without repeated
+// state checking.  Since nothing is recorded, it may be shared by any
+// number of searches.
+//
+// Created Sun Oct 18 07:36:50 PDT 2026
+//
+
+
+public class NoClosedSet implements ClosedSetPolicy {
+
+    // start -- Do nothing, since nothing is recorded.
+    public void start(int locationCount) {
+    }
+
+    // isClosed -- Return false, since no location is ever closed.
+    public boolean isClosed(int loc) {
+	return (false);
+    }
+
+    // close -- Do nothing, since nothing is recorded.
+    public void close(int loc) {
+    }
+
+    // frontierNode -- Return -1, since no frontier node is recorded.
+    public int frontierNode(int loc) {
+	return (-1);
+    }
+
+    // setFrontierNode -- Do nothing, since nothing is recorded.
+    public void setFrontierNode(int loc, int node) {
+    }
+
+    // improve -- Return true, since every path is kept.
+    public boolean improve(int loc, double cost) {
+	return (true);
+    }
+
+}
+
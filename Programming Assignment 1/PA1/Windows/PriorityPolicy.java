@@ -0,0 +1,140 @@
+//
+// PriorityPolicy
+//
+// This class implements a FrontierPolicy that expands the search tree node
+// with the lowest partial path cost, heuristic value, or sum of the two,
+// giving uniform-cost, greedy, or A* search.  When the sum is used, the
+// heuristic value may be multiplied by a weight, giving weighted A* search.
+// The nodes are held in a NodeHeap, an IndexedHeap keyed by sorting value,
+// so a node may be removed from the middle of the frontier when a cheaper
+// node for the same location replaces it.  Ties are broken as by a
+// WaypointComparator:  nodes at different locations are taken in
+// alphabetical order of location name, and nodes at the same location are
+// taken in the order of their parents, compared in the same way.  Nodes
+// that are still tied are taken in the order in which they were generated,
+// so that nodes are expanded in the same order as they would be using a
+// SortedFrontier.
+//
+// Created Sun Oct 18 07:29:05 PDT 2026
+//
+
+
+// NodeHeap is an IndexedHeap of search tree nodes in which nodes with equal
+// keys are ordered by the PriorityPolicy that holds them ...
+class NodeHeap extends IndexedHeap {
+    PriorityPolicy policy;
+
+    // Constructor with the policy that holds the heap specified ...
+    NodeHeap(PriorityPolicy policy) {
+	this.policy = policy;
+    }
+
+    // before -- Return true if and only if the first node should be
+    // removed from the heap before the second.
+    boolean before(int a, int b) {
+	double ka = key[a];
+	double kb = key[b];
+	if (ka != kb)
+	    return (ka < kb);
+	return (policy.compareTied(a, b) < 0);
+    }
+
+}
+
+
+public class PriorityPolicy implements FrontierPolicy {
+    SortBy statistic;
+    double weight;
+    NodeHeap heap = new NodeHeap(this);
+    SearchTree tree;
+
+    // Constructor with the statistic to sort by specified ...
+    PriorityPolicy(SortBy statistic) {
+	this(statistic, 1.0);
+    }
+
+    // Constructor with the statistic to sort by and the weight of the
+    // heuristic value in the sum specified ...
+    PriorityPolicy(SortBy statistic, double weight) {
+	this.statistic = statistic;
+	this.weight = weight;
+    }
+
+    // clear -- Remove every node, before a search of the given tree.
+    public void clear(SearchTree tree) {
+	this.tree = tree;
+	heap.clear();
+    }
+
+    // isEmpty -- Return true if there are no nodes in the frontier.
+    public boolean isEmpty() {
+	return (heap.isEmpty());
+    }
+
+    // size -- Return the number of nodes in the frontier.
+    public int size() {
+	return (heap.size());
+    }
+
+    // insert -- Add the given node, in order of its sorting value.
+    public void insert(int node) {
+	heap.insert(node, sortingValue(node));
+    }
+
+    // removeNext -- Remove and return the node with the lowest sorting
+    // value.
+    public int removeNext() {
+	return (heap.removeMin());
+    }
+
+    // canReplace -- Return true, since a cheaper node takes its own place.
+    public boolean canReplace() {
+	return (true);
+    }
+
+    // remove -- Remove the given node, if it is in the frontier.
+    public void remove(int node) {
+	heap.remove(node);
+    }
+
+    // compareTied -- Return a negative number if the first of the given
+    // nodes, which have the same sorting value, should be expanded before
+    // the second, and a positive number otherwise.
+    int compareTied(int a, int b) {
+	Location[] locations = tree.graph.locations;
+	int first = a;
+	int second = b;
+	while (a != b) {
+	    int la = tree.location[a];
+	    int lb = tree.location[b];
+	    if (la != lb)
+		return (locations[la].name.compareTo(locations[lb].name));
+	    // The locations are the same, so order the nodes by their
+	    // parents ...
+	    a = tree.parent[a];
+	    b = tree.parent[b];
+	    if ((a < 0) || (b < 0))
+		break;
+	    double va = sortingValue(a);
+	    double vb = sortingValue(b);
+	    if (va != vb)
+		return ((va < vb) ? -1 : 1);
+	}
+	return ((first < second) ? -1 : 1);
+    }
+
+    // sortingValue -- Return the statistic of the given search tree node
+    // that determines its position in the frontier.
+    double sortingValue(int node) {
+	switch (statistic) {
+	case h:
+	    return (tree.heuristic[node]);
+	case f:
+	    return (tree.cost[node] + weight * tree.heuristic[node]);
+	default:
+	    return (tree.cost[node]);
+	}
+    }
+
+}
+
@@ -0,0 +1,174 @@
+//
+// SearchKernel
+//
+// This class implements the search loop shared by the uninformed and
+// heuristic search algorithms:  breadth-first, depth-first, uniform-cost,
+// greedy, A*, and weighted A* search.  These algorithms differ only in the
+// order in which nodes are expanded, which is decided by a pluggable
+// FrontierPolicy, so each of them is this loop with a different frontier,
+// and every improvement made to the loop is shared by all of them.  The
+// search is performed over the compact form of the map, and the search tree
+// is held in a SearchTree, rather than being built from Waypoint objects.
+// When repeated state checking is requested, a pluggable ClosedSetPolicy
+// records the locations that have already been expanded, which are not
+// revisited, and the node in the frontier for each location, so that a
+// location is never in the frontier more than once, along with the
+// cheapest partial path cost found for each location.  If a cheaper path
+// to a location in the frontier is found, the frontier node is replaced, if
+// the frontier allows it, and the new path is discarded otherwise.  By
+// default, the closed set is a HashClosedSet, which only records the
+// locations that the search reaches, so that a short search of a large map
+// is not slowed by clearing an entry for every location on the map.  Since
+// successors that fail these checks never become nodes, and since Waypoint
+// objects are only made for the solution path, very little memory is
+// allocated per node expansion.  The search tree, the frontier, and the
+// closed set are kept from one search to the next, so a SearchKernel that
+// is used for many searches of the same map allocates almost nothing after
+// the first.  The solution is returned as a Waypoint, so that it can be
+// reported in the usual way, and the number of node expansions performed
+// by the most recent search is kept in "expansionCount".  A depth limit is
+// enforced, and the search fails if that limit is reached, setting
+// "limitReached", so that such a failure can be told apart from a search
+// that shows that there is no path.  More detailed measurements of the most
+// recent search are kept in "statistics".
+//
+// Created Sun Oct 18 02:16:45 PDT 2026
+// Modified Sun Oct 18 03:48:26 PDT 2026
+//   (Used a HashClosedSet by default.)
+// Modified Sun Oct 18 09:36:12 PDT 2026
+//   (Recorded whether a limit was reached.)
+//
+
+
+public class SearchKernel {
+    static final ClosedSetPolicy NO_CLOSED_SET = new NoClosedSet();
+    Map graph;
+    String initialLoc;
+    String destinationLoc;
+    int limit;
+    Heuristic heuristic;
+    FrontierPolicy frontier;
+    ClosedSetPolicy closedSet;
+    SearchTree tree = null;
+    public int expansionCount = 0;
+    public boolean limitReached = false;   // true if the last search hit it
+    public SearchStatistics statistics;
+
+    // Constructor with the map, the initial and destination location names,
+    // the depth limit, the frontier policy, and the name of the search
+    // algorithm, for its statistics, specified.  The heuristic function
+    // assigns zero to every node until another is provided, and repeated
+    // state checking uses a HashClosedSet until another closed set policy
+    // is provided.
+    public SearchKernel(Map graph, String initialLoc, String destinationLoc,
+			int limit, FrontierPolicy frontier, String algorithm) {
+	this.graph = graph;
+	this.initialLoc = initialLoc;
+	this.destinationLoc = destinationLoc;
+	this.limit = limit;
+	this.frontier = frontier;
+	this.heuristic = new Heuristic();
+	this.closedSet = new HashClosedSet();
+	this.statistics = new SearchStatistics(algorithm);
+    }
+
+    // setHeuristic -- Use the given heuristic function during search.  The
+    // destination of the heuristic function is set at the start of each
+    // search.
+    public void setHeuristic(Heuristic heuristic) {
+	this.heuristic = heuristic;
+    }
+
+    // setFrontierPolicy -- Use the given frontier during search.
+    public void setFrontierPolicy(FrontierPolicy frontier) {
+	this.frontier = frontier;
+    }
+
+    // setClosedSetPolicy -- Use the given closed set during search with
+    // repeated state checking.
+    public void setClosedSetPolicy(ClosedSetPolicy closedSet) {
+	this.closedSet = closedSet;
+    }
+
+    // search -- Search for a path from the initial location to the
+    // destination location, performing repeated state checking if and only
+    // if the argument is true.  Return the Waypoint at the end of the
+    // solution path, or null if no solution is found.
+    public Waypoint search(boolean repeatedStateChecking) {
+	statistics.start(initialLoc, destinationLoc);
+	Waypoint solution = find(repeatedStateChecking);
+	statistics.expansionCount = expansionCount;
+	statistics.stop(solution);
+	return (solution);
+    }
+
+    // find -- Perform the search, as described for the "search" method.
+    Waypoint find(boolean repeatedStateChecking) {
+	expansionCount = 0;
+	limitReached = false;
+	Location start = graph.findLocation(initialLoc);
+	Location goal = graph.findLocation(destinationLoc);
+	if ((start == null) || (goal == null))
+	    return (null);
+	CompactMap map = graph.compact();
+	heuristic.setDestination(goal);
+	if ((tree == null) || (tree.graph != map))
+	    tree = new SearchTree(map);
+	else
+	    tree.clear();
+	ClosedSetPolicy closed
+	    = repeatedStateChecking ? closedSet : NO_CLOSED_SET;
+	closed.start(map.locationCount());
+	frontier.clear(tree);
+	boolean replaceable = frontier.canReplace();
+	int root = tree.addRoot(start.id, heuristic.heuristicFunction(start));
+	frontier.insert(root);
+	statistics.generatedCount++;
+	statistics.heuristicCount++;
+	statistics.noteFrontierSize(1);
+	closed.improve(start.id, 0.0);
+	closed.setFrontierNode(start.id, root);
+	while (!(frontier.isEmpty())) {
+	    int node = frontier.removeNext();
+	    int loc = tree.location[node];
+	    if (loc == goal.id)
+		return (tree.toWaypoint(node));
+	    if (tree.depth[node] >= limit) {
+		// The depth limit has been reached ...
+		limitReached = true;
+		return (null);
+	    }
+	    closed.close(loc);
+	    expansionCount++;
+	    int count = tree.expand(node);
+	    for (int i = 0; i < count; i++) {
+		int child = tree.successorLocation[i];
+		double g = tree.successorCost[i];
+		if (closed.isClosed(child)) {
+		    statistics.pruneCount++;
+		    continue;
+		}
+		int queued = closed.frontierNode(child);
+		if (((queued >= 0) && !replaceable)
+		    || !(closed.improve(child, g))) {
+		    statistics.pruneCount++;
+		    continue;
+		}
+		if (queued >= 0)
+		    // The new path is cheaper, so replace the old node ...
+		    frontier.remove(queued);
+		double h = heuristic.heuristicFunction(map.locations[child]);
+		int childNode = tree.addNode(node, child, g, h);
+		frontier.insert(childNode);
+		statistics.generatedCount++;
+		statistics.heuristicCount++;
+		statistics.noteFrontierSize(frontier.size());
+		closed.setFrontierNode(child, childNode);
+	    }
+	}
+	// The frontier has been exhausted ...
+	return (null);
+    }
+
+}
+
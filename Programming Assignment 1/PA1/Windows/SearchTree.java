@@ -0,0 +1,163 @@
+//
+// SearchTree
+//
+// This class implements a search tree whose nodes are stored in parallel
+// primitive arrays, rather than as individual Waypoint objects.  Each node
+// is identified by a small integer, and, for each node, the tree records
+// the id of the corresponding location on a CompactMap, the node's parent
+// in the search tree (or -1 for the root), its depth, its partial path
+// cost, and its heuristic value.  The "expand" method writes the successors
+// of a node into a pair of reusable buffers (one holding location ids and
+// one holding partial path costs) without creating any nodes at all, so
+// that a search algorithm can discard successors that fail a repeated state
+// check before paying for them.  Only the successors that are kept need to
+// be added to the tree, using the "addNode" method.  Waypoint objects are
+// only created by the "toWaypoint" method, which builds the chain of
+// Waypoint nodes from the root of the tree to a given node, so that a
+// solution can be reported in the usual way.
+//
+// Created Sat Oct 17 13:48:30 PDT 2026
+//
+
+
+import java.util.*;
+
+
+public class SearchTree {
+    CompactMap graph;
+    int[] location;          // node -> location id
+    int[] parent;            // node -> parent node, or -1
+    int[] depth;             // node -> depth in the search tree
+    double[] cost;           // node -> partial path cost
+    double[] heuristic;      // node -> heuristic value
+    int size = 0;
+    int[] successorLocation; // buffer of successor location ids
+    double[] successorCost;  // buffer of successor partial path costs
+    int successorCount = 0;
+
+    // Constructor with the map to be searched specified ...
+    public SearchTree(CompactMap graph) {
+	this(graph, 256);
+    }
+
+    // Constructor with the map to be searched and an initial capacity
+    // specified ...
+    public SearchTree(CompactMap graph, int capacity) {
+	if (capacity < 1)
+	    capacity = 1;
+	this.graph = graph;
+	this.location = new int[capacity];
+	this.parent = new int[capacity];
+	this.depth = new int[capacity];
+	this.cost = new double[capacity];
+	this.heuristic = new double[capacity];
+	this.successorLocation = new int[16];
+	this.successorCost = new double[16];
+    }
+
+    // size -- Return the number of nodes in the tree.
+    public int size() {
+	return (size);
+    }
+
+    // clear -- Remove all of the nodes from the tree, keeping the storage
+    // for reuse.
+    public void clear() {
+	size = 0;
+	successorCount = 0;
+    }
+
+    // addRoot -- Add a root node for the location with the given id, with
+    // a partial path cost of zero and the given heuristic value.  Return
+    // the id of the new node.
+    public int addRoot(int loc, double h) {
+	return (addNode(-1, loc, 0.0, h));
+    }
+
+    // addNode -- Add a node for the location with the given id as a child
+    // of the given parent node (or as a root, if the parent is -1), with
+    // the given partial path cost and heuristic value.  Return the id of
+    // the new node.
+    public int addNode(int parentNode, int loc, double g, double h) {
+	if (size == location.length)
+	    grow();
+	int node = size++;
+	location[node] = loc;
+	parent[node] = parentNode;
+	depth[node] = (parentNode < 0) ? 0 : depth[parentNode] + 1;
+	cost[node] = g;
+	heuristic[node] = h;
+	return (node);
+    }
+
+    // expand -- Fill the successor buffers with the location ids and the
+    // partial path costs of the children of the given node, in the order
+    // of the roads leading out of the node's location.  Return the number
+    // of successors.  The buffers are overwritten by the next expansion.
+    public int expand(int node) {
+	int loc = location[node];
+	int first = graph.firstRoad[loc];
+	int count = graph.firstRoad[loc + 1] - first;
+	if (count > successorLocation.length) {
+	    int capacity = Math.max(count, 2 * successorLocation.length);
+	    successorLocation = new int[capacity];
+	    successorCost = new double[capacity];
+	}
+	double g = cost[node];
+	for (int i = 0; i < count; i++) {
+	    successorLocation[i] = graph.roadTarget[first + i];
+	    successorCost[i] = g + graph.roadCost[first + i];
+	}
+	successorCount = count;
+	return (count);
+    }
+
+    // isAncestor -- Return true if and only if the location with the given
+    // id appears at the given node or at any of its ancestors.
+    public boolean isAncestor(int node, int loc) {
+	for (int n = node; n >= 0; n = parent[n]) {
+	    if (location[n] == loc)
+		return (true);
+	}
+	return (false);
+    }
+
+    // toWaypoint -- Return a Waypoint corresponding to the given node, with
+    // Waypoint objects filled in for all of its ancestors, linked through
+    // their "previous" references, so that the path to the node can be
+    // reported.  Return null if the node is -1.
+    public Waypoint toWaypoint(int node) {
+	if (node < 0)
+	    return (null);
+	// Collect the path, from the given node back to the root ...
+	int[] path = new int[depth[node] + 1];
+	int n = node;
+	for (int i = path.length - 1; i >= 0; i--) {
+	    path[i] = n;
+	    n = parent[n];
+	}
+	// Build the Waypoint chain, from the root forward ...
+	Waypoint wp = null;
+	for (int i = 0; i < path.length; i++) {
+	    Location loc = graph.locations[location[path[i]]];
+	    Waypoint next = new Waypoint(loc, wp);
+	    next.depth = depth[path[i]];
+	    next.partialPathCost = cost[path[i]];
+	    next.heuristicValue = heuristic[path[i]];
+	    wp = next;
+	}
+	return (wp);
+    }
+
+    // grow -- Double the storage available for nodes.
+    void grow() {
+	int capacity = 2 * location.length;
+	location = Arrays.copyOf(location, capacity);
+	parent = Arrays.copyOf(parent, capacity);
+	depth = Arrays.copyOf(depth, capacity);
+	cost = Arrays.copyOf(cost, capacity);
+	heuristic = Arrays.copyOf(heuristic, capacity);
+    }
+
+}
+
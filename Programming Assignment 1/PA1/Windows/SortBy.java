@@ -0,0 +1,14 @@
+//
+// SortBy
+//
+// This enumeration names the statistics by which search tree nodes may be
+// ordered in a frontier:  the partial path cost (g), the heuristic value
+// (h), or the sum of the two (f).  It is used by the SortedFrontier and
+// HeapFrontier classes, and by the searches that order their frontiers.
+//
+// Created Sun Oct 18 07:43:31 PDT 2026
+//
+
+
+public enum SortBy { g, h, f }
+
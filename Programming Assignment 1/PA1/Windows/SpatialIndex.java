@@ -0,0 +1,315 @@
+//
+// SpatialIndex
+//
+// This class implements an index of the locations on a map by their
+// coordinates, so that the locations nearest to a given point, or within a
+// given distance of it, can be found without examining every location on
+// the map.  This is needed, for example, to start a route from a point
+// given by coordinates, which is rarely exactly at a location on the map.
+// The bounding box of the locations is divided into a uniform grid of
+// square cells, sized so that there are about two locations per cell, and
+// the locations are sorted by cell, with their coordinates copied into
+// primitive arrays in the same order, so that the locations in a cell are
+// stored contiguously.  (This is the same "compressed sparse row" layout
+// used by CompactMap for roads.)  A query for the nearest locations
+// examines the cell holding the point, and then rings of cells around it,
+// stopping once no closer location can be found in rings further out.
+// Distances are straight-line distances, treating longitude and latitude
+// as planar coordinates, as the heuristic functions do.  Points outside of
+// the bounding box of the map may be given.  An index does not change when
+// its map changes, and it may be used by many threads at once.
+//
+// Created Sat Oct 17 23:58:41 PDT 2026
+//
+
+
+import java.util.*;
+
+
+// NeighborHeap holds the locations closest to a point found so far, as a
+// heap of their positions in a SpatialIndex, with the farthest at the top.
+// When it is full, a location is only added if it is closer than the
+// farthest one, which is then dropped ...
+class NeighborHeap {
+    int[] item;
+    double[] distance;   // squared distances from the point
+    int size = 0;
+    int capacity;
+
+    // Constructor with the largest number of locations to keep specified ...
+    NeighborHeap(int capacity) {
+	this.capacity = capacity;
+	int length = Math.max(1, Math.min(capacity, 16));
+	this.item = new int[length];
+	this.distance = new double[length];
+    }
+
+    // isFull -- Return true if no more locations can be added without
+    // dropping one.
+    boolean isFull() {
+	return (size >= capacity);
+    }
+
+    // farthest -- Return the squared distance of the farthest location kept.
+    double farthest() {
+	return (distance[0]);
+    }
+
+    // offer -- Add the location at the given position, with the given
+    // squared distance, if there is room for it or if it is closer than the
+    // farthest location kept.
+    void offer(int i, double d) {
+	int hole;
+	if (size < capacity) {
+	    if (size == item.length) {
+		item = Arrays.copyOf(item, 2 * size);
+		distance = Arrays.copyOf(distance, 2 * size);
+	    }
+	    // Sift the new location up from the bottom ...
+	    hole = size++;
+	    while ((hole > 0) && (distance[(hole - 1) / 2] < d)) {
+		item[hole] = item[(hole - 1) / 2];
+		distance[hole] = distance[(hole - 1) / 2];
+		hole = (hole - 1) / 2;
+	    }
+	} else if ((size > 0) && (d < distance[0])) {
+	    // Replace the farthest location, sifting down from the top ...
+	    hole = 0;
+	    while (2 * hole + 1 < size) {
+		int child = 2 * hole + 1;
+		if ((child + 1 < size) && (distance[child + 1] > distance[child]))
+		    child++;
+		if (distance[child] <= d)
+		    break;
+		item[hole] = item[child];
+		distance[hole] = distance[child];
+		hole = child;
+	    }
+	} else {
+	    return;
+	}
+	item[hole] = i;
+	distance[hole] = d;
+    }
+
+    // sorted -- Return the positions of the locations kept, closest first,
+    // emptying the heap.
+    int[] sorted() {
+	int[] result = new int[size];
+	while (size > 0) {
+	    result[size - 1] = item[0];
+	    size--;
+	    int last = item[size];
+	    double d = distance[size];
+	    int hole = 0;
+	    while (2 * hole + 1 < size) {
+		int child = 2 * hole + 1;
+		if ((child + 1 < size) && (distance[child + 1] > distance[child]))
+		    child++;
+		if (distance[child] <= d)
+		    break;
+		item[hole] = item[child];
+		distance[hole] = distance[child];
+		hole = child;
+	    }
+	    item[hole] = last;
+	    distance[hole] = d;
+	}
+	return (result);
+    }
+
+}
+
+
+public class SpatialIndex {
+    static final double LOCATIONS_PER_CELL = 2.0;
+    final Location[] locations;   // position -> Location, sorted by cell
+    final double[] longitude;     // position -> longitude
+    final double[] latitude;      // position -> latitude
+    final int[] firstInCell;      // cell -> position of first location in it
+    final double minLongitude;
+    final double minLatitude;
+    final double cellSize;
+    final int columns;
+    final int rows;
+
+    // Constructor with the map to be indexed specified ...
+    public SpatialIndex(Map map) {
+	this(map.locations);
+    }
+
+    // Constructor with the locations to be indexed specified ...
+    public SpatialIndex(List<Location> locs) {
+	int n = locs.size();
+	double minX = Double.POSITIVE_INFINITY;
+	double minY = Double.POSITIVE_INFINITY;
+	double maxX = Double.NEGATIVE_INFINITY;
+	double maxY = Double.NEGATIVE_INFINITY;
+	for (Location loc : locs) {
+	    minX = Math.min(minX, loc.longitude);
+	    minY = Math.min(minY, loc.latitude);
+	    maxX = Math.max(maxX, loc.longitude);
+	    maxY = Math.max(maxY, loc.latitude);
+	}
+	if (n == 0) {
+	    minX = 0.0;
+	    minY = 0.0;
+	    maxX = 0.0;
+	    maxY = 0.0;
+	}
+	double width = maxX - minX;
+	double height = maxY - minY;
+	// Choose square cells with about the right number of locations in
+	// each, even if the locations all lie along a line or at a point ...
+	double size = Math.sqrt(width * height * LOCATIONS_PER_CELL
+				/ Math.max(1, n));
+	if (!(size > 0.0))
+	    size = Math.max(width, height) * LOCATIONS_PER_CELL
+		/ Math.max(1, n);
+	if (!(size > 0.0))
+	    size = 1.0;
+	this.minLongitude = minX;
+	this.minLatitude = minY;
+	this.cellSize = size;
+	this.columns = (int) Math.min(n + 1L, (long) (width / size) + 1);
+	this.rows = (int) Math.min(n + 1L, (long) (height / size) + 1);
+	// Sort the locations into cells ...
+	int cells = columns * rows;
+	int[] cellOf = new int[n];
+	this.firstInCell = new int[cells + 1];
+	for (int i = 0; i < n; i++) {
+	    Location loc = locs.get(i);
+	    cellOf[i] = row(loc.latitude) * columns + column(loc.longitude);
+	    firstInCell[cellOf[i] + 1]++;
+	}
+	for (int c = 0; c < cells; c++)
+	    firstInCell[c + 1] += firstInCell[c];
+	this.locations = new Location[n];
+	this.longitude = new double[n];
+	this.latitude = new double[n];
+	int[] next = Arrays.copyOf(firstInCell, cells);
+	for (int i = 0; i < n; i++) {
+	    Location loc = locs.get(i);
+	    int p = next[cellOf[i]]++;
+	    locations[p] = loc;
+	    longitude[p] = loc.longitude;
+	    latitude[p] = loc.latitude;
+	}
+    }
+
+    // size -- Return the number of locations in the index.
+    public int size() {
+	return (locations.length);
+    }
+
+    // nearest -- Return the location nearest to the point with the given
+    // coordinates, or null if there are no locations.
+    public Location nearest(double lon, double lat) {
+	List<Location> result = nearest(lon, lat, 1);
+	if (result.isEmpty())
+	    return (null);
+	return (result.get(0));
+    }
+
+    // nearest -- Return a list of the given number of locations nearest to
+    // the point with the given coordinates, closest first.  Fewer are
+    // returned only if there are fewer locations in the index.
+    public List<Location> nearest(double lon, double lat, int k) {
+	NeighborHeap heap = new NeighborHeap(Math.min(k, locations.length));
+	int cx = column(lon);
+	int cy = row(lat);
+	for (int ring = 0; ; ring++) {
+	    if ((cx - ring < 0) && (cx + ring >= columns)
+		&& (cy - ring < 0) && (cy + ring >= rows))
+		// The ring lies entirely outside of the grid ...
+		break;
+	    if (heap.isFull() && (ring > 0)) {
+		// Every location in this ring, or beyond it, is at least
+		// this far from the point ...
+		double bound = (ring - 1) * cellSize;
+		if (bound * bound > heap.farthest())
+		    break;
+	    }
+	    if (ring == 0) {
+		search(cx, cy, lon, lat, heap);
+		continue;
+	    }
+	    for (int x = cx - ring; x <= cx + ring; x++) {
+		search(x, cy - ring, lon, lat, heap);
+		search(x, cy + ring, lon, lat, heap);
+	    }
+	    for (int y = cy - ring + 1; y < cy + ring; y++) {
+		search(cx - ring, y, lon, lat, heap);
+		search(cx + ring, y, lon, lat, heap);
+	    }
+	}
+	return (toList(heap.sorted()));
+    }
+
+    // within -- Return a list of the locations no farther than the given
+    // radius from the point with the given coordinates, closest first.
+    public List<Location> within(double lon, double lat, double radius) {
+	NeighborHeap heap = new NeighborHeap(Integer.MAX_VALUE);
+	if (radius >= 0.0) {
+	    double r2 = radius * radius;
+	    int firstColumn = column(lon - radius);
+	    int lastColumn = column(lon + radius);
+	    int firstRow = row(lat - radius);
+	    int lastRow = row(lat + radius);
+	    for (int y = firstRow; y <= lastRow; y++) {
+		for (int x = firstColumn; x <= lastColumn; x++) {
+		    int c = y * columns + x;
+		    for (int p = firstInCell[c]; p < firstInCell[c + 1]; p++) {
+			double d = distance2(p, lon, lat);
+			if (d <= r2)
+			    heap.offer(p, d);
+		    }
+		}
+	    }
+	}
+	return (toList(heap.sorted()));
+    }
+
+    // search -- Offer every location in the cell in the given column and
+    // row, if there is such a cell, to the given heap, along with its
+    // squared distance from the point with the given coordinates.
+    void search(int x, int y, double lon, double lat, NeighborHeap heap) {
+	if ((x < 0) || (x >= columns) || (y < 0) || (y >= rows))
+	    return;
+	int c = y * columns + x;
+	for (int p = firstInCell[c]; p < firstInCell[c + 1]; p++)
+	    heap.offer(p, distance2(p, lon, lat));
+    }
+
+    // distance2 -- Return the squared distance between the location at the
+    // given position and the point with the given coordinates.
+    double distance2(int p, double lon, double lat) {
+	double dx = longitude[p] - lon;
+	double dy = latitude[p] - lat;
+	return (dx * dx + dy * dy);
+    }
+
+    // column -- Return the column of cells holding the given longitude,
+    // or the nearest column if it is outside of the grid.
+    int column(double lon) {
+	double x = Math.floor((lon - minLongitude) / cellSize);
+	return ((int) Math.max(0.0, Math.min(columns - 1, x)));
+    }
+
+    // row -- Return the row of cells holding the given latitude, or the
+    // nearest row if it is outside of the grid.
+    int row(double lat) {
+	double y = Math.floor((lat - minLatitude) / cellSize);
+	return ((int) Math.max(0.0, Math.min(rows - 1, y)));
+    }
+
+    // toList -- Return a list of the locations at the given positions.
+    List<Location> toList(int[] positions) {
+	List<Location> result = new ArrayList<Location>(positions.length);
+	for (int p : positions)
+	    result.add(locations[p]);
+	return (result);
+    }
+
+}
+
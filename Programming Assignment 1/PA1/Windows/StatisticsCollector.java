@@ -0,0 +1,196 @@
+//
+// StatisticsCollector
+//
+// This class gathers the SearchStatistics of many searches, so that the
+// performance of search algorithms and heuristic functions can be compared
+// across a whole workload, rather than a single query.  For each search
+// algorithm, histograms are kept of the numbers of nodes generated and
+// expanded, of the peak frontier sizes, and of the wall clock times, in
+// microseconds.  The histograms have a bucket for each power of two, so
+// they take a fixed amount of memory however widely the values vary, and
+// percentiles can be estimated from them to within a factor of two.  The
+// statistics of the individual searches are not kept, so that any number
+// of searches can be gathered, but they can be written to a file as they
+// are added, as comma-separated values, with one line per search, or as a
+// JSON document holding both the searches and, once the file is closed,
+// the histograms.  Statistics may be added by many threads at once.
+//
+// Created Sat Oct 17 20:58:05 PDT 2026
+// Modified Sun Oct 18 05:37:18 PDT 2026
+//   (Streamed the statistics of each search to the file, keeping only the
+//    histograms.)
+//
+
+
+import java.io.*;
+import java.util.*;
+
+
+// Histogram counts values in buckets, with bucket 0 holding the value 0 and
+// bucket i, for i > 0, holding values from 2^(i-1) up to 2^i - 1 ...
+class Histogram {
+    long[] buckets = new long[64];
+    long count = 0;
+    long sum = 0;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+
+    // add -- Count the given non-negative value.
+    void add(long value) {
+	buckets[64 - Long.numberOfLeadingZeros(Math.max(0, value))]++;
+	count++;
+	sum += value;
+	min = Math.min(min, value);
+	max = Math.max(max, value);
+    }
+
+    // mean -- Return the mean of the values counted, or zero if there are
+    // none.
+    double mean() {
+	return ((count == 0) ? 0.0 : ((double) sum / count));
+    }
+
+    // percentile -- Return an upper bound on the given percentile of the
+    // values counted, which is the largest value in the bucket holding
+    // that percentile, but no more than the largest value counted.
+    long percentile(double p) {
+	long rank = (long) Math.ceil(count * p / 100.0);
+	long seen = 0;
+	for (int i = 0; i < buckets.length; i++) {
+	    seen += buckets[i];
+	    if ((seen >= rank) && (seen > 0))
+		return (Math.min(max, (i == 0) ? 0 : ((1L << i) - 1)));
+	}
+	return (0);
+    }
+
+    // toJson -- Return this histogram as a JSON object, listing only the
+    // buckets up to the last one that is not empty.
+    String toJson() {
+	int last = buckets.length - 1;
+	while ((last > 0) && (buckets[last] == 0))
+	    last--;
+	StringBuilder result = new StringBuilder();
+	result.append(String.format("{\"count\":%d,\"mean\":%s,\"min\":%d,\"max\":%d,\"p50\":%d,\"p90\":%d,\"p99\":%d,\"buckets\":[",
+				    count, Double.toString(mean()),
+				    (count == 0) ? 0 : min,
+				    (count == 0) ? 0 : max,
+				    percentile(50), percentile(90),
+				    percentile(99)));
+	for (int i = 0; i <= last; i++) {
+	    if (i > 0)
+		result.append(',');
+	    result.append(buckets[i]);
+	}
+	return (result.append("]}").toString());
+    }
+
+}
+
+
+public class StatisticsCollector {
+    static final String[] MEASURES = { "generated", "expanded",
+				       "peak_frontier", "wall_time_us" };
+    int count = 0;
+    LinkedHashMap<String, Histogram[]> histograms
+	= new LinkedHashMap<String, Histogram[]>();
+    PrintWriter out = null;      // the statistics file, or null if none
+    boolean json = false;        // true if the file is a JSON document
+
+    // open -- Write the statistics of every search added from now on to the
+    // file with the given pathname, as a JSON document if its name ends in
+    // ".json" and as comma-separated values, with a header line, otherwise.
+    // The file is completed by "close".  Return false on error.
+    public synchronized boolean open(String filename) {
+	try {
+	    out = new PrintWriter(new BufferedWriter(new FileWriter(filename)));
+	} catch (IOException e) {
+	    // Something went wrong ...
+	    return (false);
+	}
+	json = filename.endsWith(".json");
+	if (json) {
+	    out.println("{");
+	    out.println("\"searches\":[");
+	} else {
+	    out.println(SearchStatistics.csvHeader());
+	}
+	return (!(out.checkError()));
+    }
+
+    // add -- Record the given statistics of a search in the histograms, and
+    // write them to the statistics file, if one is open.
+    public synchronized void add(SearchStatistics s) {
+	Histogram[] h = histograms.get(s.algorithm);
+	if (h == null) {
+	    h = new Histogram[MEASURES.length];
+	    for (int i = 0; i < h.length; i++)
+		h[i] = new Histogram();
+	    histograms.put(s.algorithm, h);
+	}
+	h[0].add(s.generatedCount);
+	h[1].add(s.expansionCount);
+	h[2].add(s.peakFrontierSize);
+	h[3].add(s.wallTime / 1000);
+	if (out != null) {
+	    if (json)
+		out.print(((count > 0) ? ",\n" : "") + s.toJson());
+	    else
+		out.println(s.toCsv());
+	}
+	count++;
+    }
+
+    // size -- Return the number of searches recorded.
+    public synchronized int size() {
+	return (count);
+    }
+
+    // summary -- Return a textual summary of the histograms, with a line
+    // for each search algorithm and measure, giving the mean, median, 90th
+    // and 99th percentiles, and the maximum value.
+    public synchronized String summary() {
+	StringBuilder result = new StringBuilder();
+	for (String algorithm : histograms.keySet()) {
+	    Histogram[] h = histograms.get(algorithm);
+	    for (int i = 0; i < h.length; i++)
+		result.append(String.format("%-14s %-14s n=%d mean=%.1f p50<=%d p90<=%d p99<=%d max=%d\n",
+					    algorithm, MEASURES[i],
+					    h[i].count, h[i].mean(),
+					    h[i].percentile(50),
+					    h[i].percentile(90),
+					    h[i].percentile(99), h[i].max));
+	}
+	return (result.toString());
+    }
+
+    // close -- Complete and close the statistics file, if one is open,
+    // adding the histograms for every search algorithm to a JSON document.
+    // Return false on error.
+    public synchronized boolean close() {
+	if (out == null)
+	    return (true);
+	if (json) {
+	    if (count > 0)
+		out.println();
+	    out.println("],");
+	    out.println("\"histograms\":{");
+	    int written = 0;
+	    for (String algorithm : histograms.keySet()) {
+		Histogram[] h = histograms.get(algorithm);
+		out.print(SearchStatistics.quote(algorithm) + ":{");
+		for (int i = 0; i < h.length; i++)
+		    out.print(((i > 0) ? "," : "") + "\"" + MEASURES[i]
+			      + "\":" + h[i].toJson());
+		out.println("}" + ((++written < histograms.size()) ? "," : ""));
+	    }
+	    out.println("}");
+	    out.println("}");
+	}
+	out.close();
+	boolean ok = !(out.checkError());
+	out = null;
+	return (ok);
+    }
+
+}
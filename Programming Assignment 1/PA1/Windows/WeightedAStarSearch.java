@@ -0,0 +1,45 @@
+//
+// WeightedAStarSearch
+//
+// This class implements weighted A* search for a path from one location on
+// a map to another, expanding the node with the lowest sum of partial path
+// cost and a weight times the heuristic value first.  With a weight greater
+// than one, the search is drawn more strongly toward the destination than
+// A* search, usually expanding far fewer nodes, at the price of a solution
+// that may not be optimal.  With a consistent heuristic function, however,
+// the cost of the solution is never more than the weight times the cost of
+// an optimal solution, even though locations that have already been
+// expanded are not revisited, and this bound is returned by "bound".  The
+// search itself, with or without repeated state checking, is performed by
+// the SearchKernel.  The heuristic function is a GoodHeuristic until
+// another is provided.  The number of node expansions performed by the
+// most recent search is kept in "expansionCount".
+//
+// Created Sun Oct 18 03:02:19 PDT 2026
+//
+
+
+public class WeightedAStarSearch extends SearchKernel {
+    double weight;
+
+    // Constructor with the map, the initial and destination location names,
+    // the depth limit, and the weight of the heuristic value specified.  A
+    // weight less than one is taken to be one.
+    public WeightedAStarSearch(Map graph, String initialLoc,
+			       String destinationLoc, int limit,
+			       double weight) {
+	super(graph, initialLoc, destinationLoc, limit,
+	      new PriorityPolicy(SortBy.f, Math.max(1.0, weight)), "wastar");
+	this.weight = Math.max(1.0, weight);
+	setHeuristic(new GoodHeuristic());
+    }
+
+    // bound -- Return the most that the cost of a solution may exceed the
+    // cost of an optimal solution by, as a factor, when the heuristic
+    // function is consistent.
+    public double bound() {
+	return (weight);
+    }
+
+}
+
@@ -0,0 +1,109 @@
+//
+// BenchmarkMaps
+//
+// This class provides the synthetic maps used by the benchmarks.  Maps are
+// made by MapGenerator, with a fixed seed, and are written to a directory
+// under the system's temporary directory, where they are kept between runs,
+// since writing a map with a million locations takes a while.  A map may be
+// a "grid", "geometric", "planar", or "scalefree" map, with roughly the
+// given number of locations, and each is available as a pair of text files
+// and as a binary map file.
+//
+// Created Sat Oct 17 21:44:50 PDT 2026
+// Modified Sat Oct 17 22:31:16 PDT 2026
+//   (Added planar and scale-free maps.)
+//
+
+
+package cse175;
+
+
+import java.io.*;
+
+
+public class BenchmarkMaps {
+    static final long SEED = 175;
+    static final double DEGREE = 6.0;    // roads per geometric map location
+    static final int LINKS = 3;          // roads added per scale-free location
+    static final File DIRECTORY
+	= new File(System.getProperty("java.io.tmpdir"), "cse175-maps");
+
+    // locationFile -- Return the pathname of the location file of the given
+    // kind of map with the given number of locations, writing the map if
+    // it has not been written already.
+    public static String locationFile(String kind, int size) {
+	return (files(kind, size)[0]);
+    }
+
+    // roadFile -- Return the pathname of the road file of the given kind of
+    // map with the given number of locations, writing the map if it has
+    // not been written already.
+    public static String roadFile(String kind, int size) {
+	return (files(kind, size)[1]);
+    }
+
+    // mapFile -- Return the pathname of the binary map file of the given
+    // kind of map with the given number of locations, writing the map if
+    // it has not been written already.
+    public static synchronized String mapFile(String kind, int size) {
+	String[] names = files(kind, size);
+	File binary = new File(DIRECTORY, kind + "-" + size + ".map");
+	if (!(binary.exists())
+	    && !(MapFile.convert(names[0], names[1], binary.getPath())))
+	    throw new IllegalStateException("Unable to write "
+					    + binary.getPath());
+	return (binary.getPath());
+    }
+
+    // load -- Return the given kind of map with the given number of
+    // locations, read from its binary map file.
+    public static Map load(String kind, int size) {
+	Map graph = new Map();
+	if (!(graph.readMapFile(mapFile(kind, size))))
+	    throw new IllegalStateException("Unable to read "
+					    + kind + " map of size " + size);
+	return (graph);
+    }
+
+    // files -- Return the pathnames of the location and road files of the
+    // given kind of map with the given number of locations, writing them
+    // if they have not been written already.  A grid map is square, so it
+    // has the given number of locations only if that number is a square.
+    static synchronized String[] files(String kind, int size) {
+	File locations = new File(DIRECTORY, kind + "-" + size + "-locations.dat");
+	File roads = new File(DIRECTORY, kind + "-" + size + "-roads.dat");
+	if (locations.exists() && roads.exists())
+	    return (new String[] { locations.getPath(), roads.getPath() });
+	DIRECTORY.mkdirs();
+	MapGenerator generator = new MapGenerator(SEED);
+	boolean written;
+	if (kind.equals("grid")) {
+	    int side = (int) Math.round(Math.sqrt(size));
+	    written = generator.writeGrid(side, side, locations.getPath(),
+					  roads.getPath());
+	} else if (kind.equals("geometric")) {
+	    written = generator.writeGeometric(size, DEGREE,
+					       locations.getPath(),
+					       roads.getPath());
+	} else if (kind.equals("planar")) {
+	    written = generator.writePlanar(size, locations.getPath(),
+					    roads.getPath());
+	} else if (kind.equals("scalefree")) {
+	    written = generator.writeScaleFree(size, LINKS,
+					       locations.getPath(),
+					       roads.getPath());
+	} else {
+	    throw new IllegalArgumentException("Unknown kind of map: " + kind);
+	}
+	if (!written) {
+	    // Do not leave a partial map behind to be reused ...
+	    locations.delete();
+	    roads.delete();
+	    throw new IllegalStateException("Unable to write "
+					    + kind + " map of size " + size);
+	}
+	return (new String[] { locations.getPath(), roads.getPath() });
+    }
+
+}
+
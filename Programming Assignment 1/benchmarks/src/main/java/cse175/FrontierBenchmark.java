@@ -0,0 +1,140 @@
+//
+// FrontierBenchmark
+//
+// These benchmarks time the frontier data structures used by the search
+// algorithms, by filling each with a set of search tree nodes and then
+// removing them all again, and by interleaving insertions and removals as
+// a search does, removing one node for every few inserted, so that the
+// frontier grows steadily.  The nodes have random partial path costs and
+// heuristic values, and they are ordered by the sum of the two (as in A*
+// search) wherever the frontier is sorted.  The plain Frontier, which is
+// a first-in first-out queue, is included as a baseline.  The IndexedHeap
+// holds location ids rather than Waypoint objects, as in the searches that
+// work from the compact form of a map.
+//
+// Created Sat Oct 17 21:44:50 PDT 2026
+//
+
+
+package cse175;
+
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontierBenchmark {
+    static final int BRANCHING = 3;    // insertions per removal when mixed
+    @Param({ "100", "1000", "10000", "100000" })
+    public int size;
+    Waypoint[] nodes;
+    double[] keys;
+
+    // setup -- Make the search tree nodes, each at its own location.
+    @Setup(Level.Trial)
+    public void setup() {
+	Random random = new Random(BenchmarkMaps.SEED);
+	nodes = new Waypoint[size];
+	keys = new double[size];
+	for (int i = 0; i < size; i++) {
+	    Location loc = new Location("loc" + i);
+	    loc.id = i;
+	    nodes[i] = new Waypoint(loc);
+	    nodes[i].partialPathCost = 100.0 * random.nextDouble();
+	    nodes[i].heuristicValue = 100.0 * random.nextDouble();
+	    keys[i] = nodes[i].partialPathCost + nodes[i].heuristicValue;
+	}
+    }
+
+    // fifoFillDrain -- Fill and drain a first-in first-out Frontier.
+    @Benchmark
+    public void fifoFillDrain(Blackhole sink) {
+	Frontier frontier = new Frontier();
+	for (Waypoint wp : nodes)
+	    frontier.addToBottom(wp);
+	while (!(frontier.isEmpty()))
+	    sink.consume(frontier.removeTop());
+    }
+
+    // sortedFillDrain -- Fill and drain a SortedFrontier.
+    @Benchmark
+    public void sortedFillDrain(Blackhole sink) {
+	SortedFrontier frontier = new SortedFrontier(SortBy.f);
+	for (Waypoint wp : nodes)
+	    frontier.addSorted(wp);
+	while (!(frontier.isEmpty()))
+	    sink.consume(frontier.removeTop());
+    }
+
+    // heapFillDrain -- Fill and drain a HeapFrontier.
+    @Benchmark
+    public void heapFillDrain(Blackhole sink) {
+	HeapFrontier frontier = new HeapFrontier(SortBy.f);
+	for (Waypoint wp : nodes)
+	    frontier.addSorted(wp);
+	while (!(frontier.isEmpty()))
+	    sink.consume(frontier.removeTop());
+    }
+
+    // indexedFillDrain -- Fill and drain an IndexedHeap.
+    @Benchmark
+    public void indexedFillDrain(Blackhole sink) {
+	IndexedHeap frontier = new IndexedHeap(size);
+	for (int i = 0; i < size; i++)
+	    frontier.insert(i, keys[i]);
+	while (!(frontier.isEmpty()))
+	    sink.consume(frontier.removeMin());
+    }
+
+    // sortedMixed -- Interleave insertions and removals on a SortedFrontier.
+    @Benchmark
+    public void sortedMixed(Blackhole sink) {
+	SortedFrontier frontier = new SortedFrontier(SortBy.f);
+	for (int i = 0; i < size; i++) {
+	    frontier.addSorted(nodes[i]);
+	    if (i % BRANCHING == 0)
+		sink.consume(frontier.removeTop());
+	}
+    }
+
+    // heapMixed -- Interleave insertions and removals on a HeapFrontier.
+    @Benchmark
+    public void heapMixed(Blackhole sink) {
+	HeapFrontier frontier = new HeapFrontier(SortBy.f);
+	for (int i = 0; i < size; i++) {
+	    frontier.addSorted(nodes[i]);
+	    if (i % BRANCHING == 0)
+		sink.consume(frontier.removeTop());
+	}
+    }
+
+    // indexedMixed -- Interleave insertions and removals on an IndexedHeap.
+    @Benchmark
+    public void indexedMixed(Blackhole sink) {
+	IndexedHeap frontier = new IndexedHeap(size);
+	for (int i = 0; i < size; i++) {
+	    frontier.insert(i, keys[i]);
+	    if (i % BRANCHING == 0)
+		sink.consume(frontier.removeMin());
+	}
+    }
+
+    // comparatorSort -- Sort the nodes with the WaypointComparator used by
+    // the sorted frontiers.
+    @Benchmark
+    public Waypoint[] comparatorSort() {
+	Waypoint[] sorted = nodes.clone();
+	Arrays.sort(sorted, new WaypointComparator(SortBy.f));
+	return (sorted);
+    }
+
+}
+
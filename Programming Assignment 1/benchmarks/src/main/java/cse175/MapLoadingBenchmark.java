@@ -0,0 +1,98 @@
+//
+// MapLoadingBenchmark
+//
+// These benchmarks time the loading of synthetic maps:  parsing the text
+// location and road files, with the road file divided among the threads of
+// the common ForkJoinPool or read by a single thread, reading the binary
+// map file both into a full Map object and into a CompactMap alone, and
+// building the compact form of a map that has already been read.  Since
+// loading a large map takes long enough to be timed directly, and since
+// later loads would find the files in the operating system's cache
+// regardless, each measurement is a single load.  Larger maps can be
+// requested on the command line, for example:
+//
+//   java -jar target/benchmarks.jar MapLoadingBenchmark -p size=1000000
+//   java -jar target/benchmarks.jar MapLoadingBenchmark -p kind=planar,scalefree
+//
+// Created Sat Oct 17 21:44:50 PDT 2026
+// Modified Sun Oct 18 01:27:33 PDT 2026
+//   (Compared serial and parallel reading of road files.)
+//
+
+
+package cse175;
+
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapLoadingBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+    @Param({ "grid", "geometric" })
+    public String kind;
+    String locationFile;
+    String roadFile;
+    String mapFile;
+    Map loaded;
+
+    // setup -- Write the map files, if necessary, and read the map once for
+    // the compact form benchmark.
+    @Setup(Level.Trial)
+    public void setup() {
+	locationFile = BenchmarkMaps.locationFile(kind, size);
+	roadFile = BenchmarkMaps.roadFile(kind, size);
+	mapFile = BenchmarkMaps.mapFile(kind, size);
+	loaded = BenchmarkMaps.load(kind, size);
+    }
+
+    // readText -- Parse the text location and road files.
+    @Benchmark
+    public Map readText() {
+	Map graph = new Map(locationFile, roadFile);
+	if (!(graph.readLocations() && graph.readRoads()))
+	    throw new IllegalStateException("Unable to read " + roadFile);
+	return (graph);
+    }
+
+    // readTextSerial -- Parse the text location and road files, reading
+    // the road file with a single thread.
+    @Benchmark
+    public Map readTextSerial() {
+	Map graph = new Map(locationFile, roadFile);
+	if (!(graph.readLocations()
+	      && MapTextReader.readRoads(graph, roadFile)))
+	    throw new IllegalStateException("Unable to read " + roadFile);
+	return (graph);
+    }
+
+    // readBinary -- Read the binary map file into a full Map object.
+    @Benchmark
+    public Map readBinary() {
+	Map graph = new Map();
+	if (!(graph.readMapFile(mapFile)))
+	    throw new IllegalStateException("Unable to read " + mapFile);
+	return (graph);
+    }
+
+    // readCompact -- Read the binary map file into a CompactMap alone.
+    @Benchmark
+    public CompactMap readCompact() {
+	return (MapFile.readCompact(mapFile));
+    }
+
+    // compact -- Build the compact form of a map already read.
+    @Benchmark
+    public CompactMap compact() {
+	return (new CompactMap(loaded));
+    }
+
+}
+
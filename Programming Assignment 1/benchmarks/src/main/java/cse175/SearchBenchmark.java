@@ -0,0 +1,126 @@
+//
+// SearchBenchmark
+//
+// These benchmarks time complete searches for shortest paths on synthetic
+// maps, using uniform-cost search, greedy best-first search, A* search, and
+// weighted A* search, with a weight of 1.5, all with repeated state
+// checking, as well as bidirectional search.  The greedy, A*, and weighted
+// A* searches use the straight-line distance heuristic.  A fixed set of
+// random queries is made for each map, and each benchmark operation answers
+// the next query in the set, so that the times are averaged over short and
+// long routes alike.  The depth limit is set high enough that it is never
+// reached.  IDA* search, with a transposition table and bounds growing by
+// at least 10%, is not run by default, since it is much slower on large
+// maps, but it can be requested with "-p algorithm=idastar".
+// Breadth-first and depth-first search, which find paths that are not the
+// cheapest, can be requested in the same way, as "bfs" and "dfs", as can
+// anytime repairing A* search, as "arastar", which is run until its
+// solution is known to be optimal, with no time budget.
+//
+// Created Sat Oct 17 21:44:50 PDT 2026
+// Modified Sat Oct 17 23:14:52 PDT 2026
+//   (Added IDA* search.)
+// Modified Sun Oct 18 02:16:45 PDT 2026
+//   (Added breadth-first and depth-first search.)
+// Modified Sun Oct 18 03:02:19 PDT 2026
+//   (Added weighted A* and anytime repairing A* search.)
+//
+
+
+package cse175;
+
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    static final int QUERIES = 64;
+    @Param({ "1000", "10000" })
+    public int size;
+    @Param({ "grid", "geometric" })
+    public String kind;
+    @Param({ "ucs", "greedy", "astar", "wastar", "bidirectional" })
+    public String algorithm;
+    Map graph;
+    String[] initialLocs = new String[QUERIES];
+    String[] destinationLocs = new String[QUERIES];
+    int next = 0;
+
+    // setup -- Read the map and choose the queries.
+    @Setup(Level.Trial)
+    public void setup() {
+	graph = BenchmarkMaps.load(kind, size);
+	int n = graph.locations.size();
+	Random random = new Random(BenchmarkMaps.SEED);
+	for (int i = 0; i < QUERIES; i++) {
+	    initialLocs[i] = graph.locations.get(random.nextInt(n)).name;
+	    destinationLocs[i] = graph.locations.get(random.nextInt(n)).name;
+	}
+    }
+
+    // search -- Answer the next query with the chosen search algorithm.
+    @Benchmark
+    public Waypoint search() {
+	int i = next;
+	next = (next + 1) % QUERIES;
+	int limit = Integer.MAX_VALUE;
+	if (algorithm.equals("bidirectional")) {
+	    BidirectionalSearch s
+		= new BidirectionalSearch(graph, initialLocs[i],
+					  destinationLocs[i], limit);
+	    return (s.search());
+	}
+	if (algorithm.equals("idastar")) {
+	    IDAStarSearch s = new IDAStarSearch(graph, initialLocs[i],
+						destinationLocs[i], limit);
+	    s.setHeuristic(new StraightLineHeuristic());
+	    s.setTranspositionTable(1 << 16);
+	    s.setBoundGrowth(0.1);
+	    return (s.search());
+	}
+	if (algorithm.equals("bfs")) {
+	    BFSearch s = new BFSearch(graph, initialLocs[i],
+				      destinationLocs[i], limit);
+	    return (s.search(true));
+	}
+	if (algorithm.equals("dfs")) {
+	    DFSearch s = new DFSearch(graph, initialLocs[i],
+				      destinationLocs[i], limit);
+	    return (s.search(true));
+	}
+	if (algorithm.equals("wastar")) {
+	    WeightedAStarSearch s
+		= new WeightedAStarSearch(graph, initialLocs[i],
+					  destinationLocs[i], limit, 1.5);
+	    s.setHeuristic(new StraightLineHeuristic());
+	    return (s.search(true));
+	}
+	if (algorithm.equals("arastar")) {
+	    ARAStarSearch s = new ARAStarSearch(graph, initialLocs[i],
+						destinationLocs[i], limit);
+	    s.setHeuristic(new StraightLineHeuristic());
+	    return (s.search());
+	}
+	SortBy strategy = SortBy.f;
+	if (algorithm.equals("ucs"))
+	    strategy = SortBy.g;
+	else if (algorithm.equals("greedy"))
+	    strategy = SortBy.h;
+	BestFirstSearch s = new BestFirstSearch(graph, initialLocs[i],
+						destinationLocs[i], limit,
+						strategy);
+	if (strategy != SortBy.g)
+	    s.setHeuristic(new StraightLineHeuristic());
+	return (s.search(true));
+    }
+
+}
+